@@ -0,0 +1,64 @@
+package com.jp.springboot.benchmarks;
+
+import com.jp.springboot.SpringBootTestingApplication;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.service.EmployeeService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application for the benchmarks, by default on an in-memory H2
+ * database in MySQL mode, so they run the real Flyway schema, repositories and
+ * caches without a MySQL server.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:ems;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="));
+        arguments.addAll(List.of(args));
+        return startOnConfiguredDatabase(arguments.toArray(String[]::new));
+    }
+
+    // the datasource from application.properties, a local MySQL unless the arguments say otherwise
+    public static ConfigurableApplicationContext startOnConfiguredDatabase(String... args) {
+        // command line arguments, default properties would lose against application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--server.port=0"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    public static List<Employee> employees(String prefix, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder()
+                    .id(i + 1)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@benchmark.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    // stores the employees and returns their generated ids
+    public static long[] seed(ConfigurableApplicationContext context, int count) {
+        List<Employee> employees = employees("seed", count);
+        employees.forEach(employee -> employee.setId(0));
+        context.getBean(EmployeeService.class).saveEmployees(employees);
+        return employees.stream().mapToLong(Employee::getId).toArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.jp.springboot.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jp.springboot.codec.EmployeeFormats;
+import com.jp.springboot.codec.EmployeeProtobuf;
+import com.jp.springboot.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes an employee list in every format the API serves, with
+ * the mappers the application builds. The payload size of each format is
+ * printed once per trial, the time per operation is what JMH reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeFormatBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    public String format;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ObjectWriter listWriter;
+
+    private ObjectReader listReader;
+
+    private EmployeeProtobuf protobuf;
+
+    private List<Employee> employees;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start("--spring.main.web-application-type=none")) {
+            EmployeeFormats employeeFormats = context.getBean(EmployeeFormats.class);
+            ObjectMapper mapper = switch (format) {
+                case "json" -> context.getBean(ObjectMapper.class);
+                case "smile" -> employeeFormats.smileMapper();
+                case "cbor" -> employeeFormats.cborMapper();
+                default -> null;
+            };
+            if (mapper != null) {
+                listWriter = mapper.writerFor(EMPLOYEE_LIST);
+                listReader = mapper.readerFor(EMPLOYEE_LIST);
+            } else {
+                protobuf = employeeFormats.protobuf();
+            }
+        }
+        employees = BenchmarkApplication.employees("format", size);
+        encoded = encode();
+        System.out.printf("%n%-8s %,7d employees: %,12d bytes (%.1f bytes/employee)%n",
+                format, size, encoded.length, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (protobuf == null) {
+            return listWriter.writeValueAsBytes(employees);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(encoded != null ? encoded.length : 8192);
+        protobuf.writeEmployees(employees, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public List<Employee> decode() throws IOException {
+        if (protobuf == null) {
+            return listReader.readValue(encoded);
+        }
+        return protobuf.readEmployees(new ByteArrayInputStream(encoded));
+    }
+}
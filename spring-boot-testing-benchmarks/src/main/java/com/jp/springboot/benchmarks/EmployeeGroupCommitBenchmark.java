@@ -0,0 +1,72 @@
+package com.jp.springboot.benchmarks;
+
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.service.EmployeeGroupCommitter;
+import com.jp.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent employee creates, each in its own transaction or collected by the
+ * group committer into one transaction per batch. Every thread waits for its
+ * own employee to be committed, as a POST /api/employees request would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class EmployeeGroupCommitBenchmark {
+
+    @Param({"per-request", "group-commit"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private EmployeeGroupCommitter groupCommitter;
+
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("--spring.main.web-application-type=none",
+                "--employee.group-commit.enabled=" + mode.equals("group-commit"));
+        employeeService = context.getBean(EmployeeService.class);
+        groupCommitter = context.getBeanProvider(EmployeeGroupCommitter.class).getIfAvailable();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        Employee employee = Employee.builder()
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("group" + nextEmail.incrementAndGet() + "@benchmark.com")
+                .build();
+        return groupCommitter != null ? groupCommitter.saveEmployee(employee) : employeeService.saveEmployee(employee);
+    }
+}
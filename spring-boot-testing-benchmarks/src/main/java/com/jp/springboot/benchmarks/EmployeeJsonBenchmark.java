@@ -0,0 +1,106 @@
+package com.jp.springboot.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jp.springboot.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization with the application's own ObjectMapper, so changes
+ * to the Jackson configuration show up here. blackbird=false is the mapper
+ * as it was before the Blackbird module, for before/after comparisons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"true", "false"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter listWriter;
+
+    private Employee employee;
+
+    private byte[] employeeJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        objectMapper = applicationObjectMapper(blackbird);
+        // what the list endpoint's message converter resolves for every response
+        listWriter = objectMapper.writerFor(EMPLOYEE_LIST);
+        employee = BenchmarkApplication.employees("json", 1).get(0);
+        employeeJson = objectMapper.writeValueAsBytes(employee);
+    }
+
+    @State(Scope.Benchmark)
+    public static class EmployeeList {
+
+        @Param({"1000", "10000", "100000"})
+        public int size;
+
+        private List<Employee> employees;
+
+        private byte[] json;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            employees = BenchmarkApplication.employees("json", size);
+            // the same document whichever mapper reads it
+            json = new ObjectMapper().writeValueAsBytes(employees);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee() throws IOException {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws IOException {
+        return objectMapper.readValue(employeeJson, Employee.class);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList(EmployeeList list) throws IOException {
+        return listWriter.writeValueAsBytes(list.employees);
+    }
+
+    @Benchmark
+    public List<Employee> deserializeEmployeeList(EmployeeList list) throws IOException {
+        return objectMapper.readValue(list.json, EMPLOYEE_LIST);
+    }
+
+    // the mapper outlives the context, it only has to be built the way the application builds it
+    private static ObjectMapper applicationObjectMapper(boolean blackbird) {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start("--spring.main.web-application-type=none",
+                "--employee.json.blackbird=" + blackbird)) {
+            return context.getBean(ObjectMapper.class);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.jp.springboot.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids of the employees the load generator created. An id is leased to one
+ * request at a time, so a GET or PUT never races a DELETE of the same employee
+ * and every non 2xx response is a real error.
+ */
+class EmployeeIdPool {
+
+    private long[] ids = new long[1024];
+
+    private int size;
+
+    synchronized void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    // a random id, removed from the pool until it is added back, or -1 when the pool is empty
+    synchronized long lease() {
+        if (size == 0) {
+            return -1;
+        }
+        int i = ThreadLocalRandom.current().nextInt(size);
+        long id = ids[i];
+        ids[i] = ids[--size];
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,335 @@
+package com.jp.springboot.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jp.springboot.benchmarks.BenchmarkApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a mix of POST, GET, PUT and DELETE calls against /api/employees and
+ * prints latency percentiles per endpoint.
+ * <p>
+ * Latency is measured from the moment a request was scheduled to start, not
+ * from when it was actually sent, so a stalled server is charged for the
+ * requests that queued up behind the stall (coordinated omission). The service
+ * time columns show the uncorrected numbers next to it. Closed loop clients only
+ * have a schedule when --rate is set, unpaced they report service time only.
+ * <p>
+ * Run from the repository root after mvn install -DskipTests:
+ * mvn -f spring-boot-testing-benchmarks exec:exec -Pload -Dload.args="--rate=5000 --duration=60s"
+ * See {@link LoadOptions} for all options. Thousands of connections need a raised
+ * open file limit (ulimit -n) and e.g. --server.tomcat.max-connections=20000.
+ */
+public class LoadGenerator {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final LoadOptions options;
+
+    private final String baseUrl;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final EmployeeIdPool idPool = new EmployeeIdPool();
+
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    // keeps emails unique across runs against the same database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    private long measureFrom;
+
+    private long measureTo;
+
+    LoadGenerator(LoadOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        operations = options.mix.keySet().toArray(Operation[]::new);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.url;
+        if (baseUrl == null) {
+            String[] applicationArgs = options.applicationArgs.toArray(String[]::new);
+            context = "mysql".equals(options.database)
+                    ? BenchmarkApplication.startOnConfiguredDatabase(applicationArgs)
+                    : BenchmarkApplication.start(applicationArgs);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            new LoadGenerator(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void run() throws Exception {
+        seed();
+        long start = System.nanoTime();
+        measureFrom = start + options.warmup.toNanos();
+        measureTo = measureFrom + options.duration.toNanos();
+        System.out.printf("%s loop against %s, %s, warmup %s, measuring %s%n", options.mode, baseUrl,
+                options.mode == LoadOptions.Mode.OPEN || options.rate > 0 ? String.format("%,d req/s scheduled", options.rate) : "unpaced",
+                options.warmup, options.duration);
+        if (options.mode == LoadOptions.Mode.OPEN) {
+            runOpenLoop(start);
+        } else {
+            runClosedLoop(start);
+        }
+        report();
+    }
+
+    // creates the employees the first GET, PUT and DELETE calls work on
+    private void seed() throws IOException, InterruptedException {
+        for (int from = 0; from < options.seed; from += SEED_BATCH_SIZE) {
+            List<ObjectNode> employees = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, options.seed); i++) {
+                employees.add(employeeJson());
+            }
+            HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(employees)))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                if ("CREATED".equals(result.path("status").asText())) {
+                    idPool.add(result.path("employee").path("id").asLong());
+                }
+            }
+        }
+    }
+
+    // one dispatcher starts every request on its scheduled time, however many are still waiting for a response
+    private void runOpenLoop(long start) throws InterruptedException {
+        double interval = 1_000_000_000.0 / options.rate;
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * interval);
+            if (intendedStart >= measureTo) {
+                break;
+            }
+            waitUntil(intendedStart);
+            inFlight.acquire();
+            call(nextOperation(), intendedStart).whenComplete((ignored, failure) -> inFlight.release());
+        }
+        if (!inFlight.tryAcquire(options.maxInFlight, 1, TimeUnit.MINUTES)) {
+            System.out.println("Gave up waiting for the last responses");
+        }
+    }
+
+    // every client waits for its response, paced to its share of --rate when one is set
+    private void runClosedLoop(long start) throws InterruptedException {
+        long clientInterval = options.rate > 0 ? 1_000_000_000L * options.clients / options.rate : 0;
+        ExecutorService clients = Executors.newFixedThreadPool(options.clients);
+        for (int c = 0; c < options.clients; c++) {
+            // spread the clients over one interval instead of starting them all at once
+            long firstStart = start + (clientInterval > 0 ? clientInterval * c / options.clients : 0);
+            clients.execute(() -> {
+                for (long intendedStart = firstStart; ; intendedStart += clientInterval) {
+                    if (clientInterval > 0) {
+                        waitUntil(intendedStart);
+                    } else {
+                        intendedStart = System.nanoTime();
+                    }
+                    if (intendedStart >= measureTo) {
+                        break;
+                    }
+                    call(nextOperation(), intendedStart).join();
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(options.duration.toSeconds() + options.warmup.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<Void> call(Operation next, long intendedStart) {
+        long id = next.needsEmployee() ? idPool.lease() : -1;
+        // nothing left to read, change or delete, create instead
+        Operation operation = next.needsEmployee() && id < 0 ? Operation.POST : next;
+        HttpRequest request;
+        try {
+            request = request(operation, id);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long sendStart = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    long end = System.nanoTime();
+                    boolean success = failure == null && response.statusCode() / 100 == 2;
+                    if (operation == Operation.POST) {
+                        if (success) {
+                            idPool.add(readId(response.body()));
+                        }
+                    } else if (operation != Operation.DELETE || !success) {
+                        idPool.add(id);
+                    }
+                    if (intendedStart >= measureFrom && intendedStart < measureTo) {
+                        stats.get(operation).record(success, end - intendedStart, end - sendStart);
+                    }
+                    return null;
+                });
+    }
+
+    private HttpRequest request(Operation operation, long id) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        return switch (operation) {
+            case POST -> request.uri(URI.create(baseUrl + "/api/employees"))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(employeeJson())))
+                    .build();
+            case GET -> request.uri(URI.create(baseUrl + "/api/employees/" + id)).GET().build();
+            case PUT -> request.uri(URI.create(baseUrl + "/api/employees/" + id))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(employeeJson())))
+                    .build();
+            case DELETE -> request.uri(URI.create(baseUrl + "/api/employees/" + id)).DELETE().build();
+        };
+    }
+
+    private ObjectNode employeeJson() {
+        long n = nextEmail.incrementAndGet();
+        return objectMapper.createObjectNode()
+                .put("firstName", "Load" + n)
+                .put("lastName", "Test")
+                .put("email", "load-" + runId + "-" + n + "@loadtest.com");
+    }
+
+    private long readId(byte[] body) {
+        try {
+            return objectMapper.readTree(body).path("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable employee in response", e);
+        }
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (pick >= cumulativeWeights[i]) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    private static void waitUntil(long nanoTime) {
+        for (long remaining = nanoTime - System.nanoTime(); remaining > 0; remaining = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void report() throws IOException {
+        double seconds = options.duration.toNanos() / 1e9;
+        System.out.printf("%n%-26s %9s %7s %9s %9s %9s %9s %9s %9s %9s  | service %9s %9s%n", "latency (ms)",
+                "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max", "p50", "p99");
+        Histogram allLatency = new Histogram(3);
+        Histogram allServiceTime = new Histogram(3);
+        long allErrors = 0;
+        Files.createDirectories(options.histogramDir);
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            if (endpoint.latency.getTotalCount() == 0 && endpoint.errors.sum() == 0) {
+                continue;
+            }
+            printRow(entry.getKey().getEndpoint(), endpoint.latency, endpoint.serviceTime, endpoint.errors.sum(), seconds);
+            allLatency.add(endpoint.latency);
+            allServiceTime.add(endpoint.serviceTime);
+            allErrors += endpoint.errors.sum();
+            writeDistribution(entry.getKey().name().toLowerCase(), endpoint.latency);
+        }
+        printRow("all", allLatency, allServiceTime, allErrors, seconds);
+        writeDistribution("all", allLatency);
+        System.out.println("Percentile distributions written to " + options.histogramDir.toAbsolutePath());
+    }
+
+    private static void printRow(String label, Histogram latency, Histogram serviceTime, long errors, double seconds) {
+        System.out.printf("%-26s %,9d %,7d %,9.0f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f  | service %9.2f %9.2f%n", label,
+                latency.getTotalCount(), errors, latency.getTotalCount() / seconds,
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getValueAtPercentile(99.99)), millis(latency.getMaxValue()),
+                millis(serviceTime.getValueAtPercentile(50)), millis(serviceTime.getValueAtPercentile(99)));
+    }
+
+    private void writeDistribution(String name, Histogram latency) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(
+                options.histogramDir.resolve(options.mode.name().toLowerCase() + "-" + name + ".hgrm")))) {
+            latency.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // latencies in microseconds, the histograms resize to whatever the slowest request took
+    private static class EndpointStats {
+
+        final ConcurrentHistogram latency = new ConcurrentHistogram(3);
+
+        final ConcurrentHistogram serviceTime = new ConcurrentHistogram(3);
+
+        final LongAdder errors = new LongAdder();
+
+        void record(boolean success, long latencyNanos, long serviceTimeNanos) {
+            if (!success) {
+                errors.increment();
+                return;
+            }
+            latency.recordValue(Math.max(1, latencyNanos / 1000));
+            serviceTime.recordValue(Math.max(1, serviceTimeNanos / 1000));
+        }
+    }
+}
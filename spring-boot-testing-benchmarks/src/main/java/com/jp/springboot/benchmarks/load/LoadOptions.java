@@ -0,0 +1,100 @@
+package com.jp.springboot.benchmarks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of {@link LoadGenerator}, all given as --name=value.
+ * Arguments it does not know, e.g. --spring.datasource.url=..., are passed on to
+ * the application it starts.
+ */
+class LoadOptions {
+
+    enum Mode {
+        // requests start on a fixed schedule, however slow the responses are
+        OPEN,
+        // every client sends its next request once the previous one completed
+        CLOSED
+    }
+
+    Mode mode = Mode.OPEN;
+    // requests per second over all clients, 0 lets closed loop clients run unpaced
+    int rate = 1000;
+    int clients = 64;
+    // open loop only, beyond this the schedule falls behind and the delay shows up as latency
+    int maxInFlight = 2000;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(30);
+    Map<Operation, Integer> mix = parseMix("get:70,post:10,put:10,delete:10");
+    int seed = 10_000;
+    // an already running instance, when not set the generator starts the application itself
+    String url;
+    // mysql runs against the datasource in application.properties instead of in-memory H2
+    String database = "h2";
+    // the full percentile distributions as .hgrm files, for plotting
+    Path histogramDir = Path.of("target", "load");
+    List<String> applicationArgs = new ArrayList<>();
+
+    static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String value = arg.substring(equals + 1);
+            switch (arg.substring(2, equals)) {
+                case "mode" -> options.mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+                case "rate" -> options.rate = Integer.parseInt(value);
+                case "clients" -> options.clients = Integer.parseInt(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "seed" -> options.seed = Integer.parseInt(value);
+                case "url" -> options.url = value;
+                case "database" -> options.database = value.toLowerCase(Locale.ROOT);
+                case "histogram-dir" -> options.histogramDir = Path.of(value);
+                default -> options.applicationArgs.add(arg);
+            }
+        }
+        if (options.mode == Mode.OPEN && options.rate <= 0) {
+            throw new IllegalArgumentException("Open loop needs a --rate above 0");
+        }
+        return options;
+    }
+
+    // 30s, 2m or 500ms
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Expected a duration like 30s, 2m or 500ms but got: " + value);
+        };
+    }
+
+    // get:70,post:10,... weights, operations left out are not called
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got: " + entry);
+            }
+            mix.put(Operation.valueOf(parts[0].toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1]));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix needs at least one positive weight: " + value);
+        }
+        return mix;
+    }
+}
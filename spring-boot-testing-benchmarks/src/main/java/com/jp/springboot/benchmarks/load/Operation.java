@@ -0,0 +1,26 @@
+package com.jp.springboot.benchmarks.load;
+
+/**
+ * The calls the load generator mixes, named after their option key in --mix.
+ */
+public enum Operation {
+    POST("POST /api/employees"),
+    GET("GET /api/employees/{id}"),
+    PUT("PUT /api/employees/{id}"),
+    DELETE("DELETE /api/employees/{id}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    // every call but POST needs an existing employee
+    public boolean needsEmployee() {
+        return this != POST;
+    }
+}
@@ -0,0 +1,110 @@
+package com.jp.springboot.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jp.springboot.model.Employee;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * The formats employees are served in. CBOR, Smile and Protobuf mappers are
+ * copies of the application ObjectMapper, so they share its modules and
+ * settings. JSON stays the default, the binary formats are for consumers that
+ * ask for them.
+ */
+public class EmployeeFormats {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+    // RFC 8742, CBOR items back to back
+    public static final String CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType CBOR_SEQ = MediaType.parseMediaType(CBOR_SEQ_VALUE);
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    // what /export can stream, the first one is the default
+    public static final List<MediaType> SEQUENCE_TYPES = List.of(MediaType.APPLICATION_NDJSON, CBOR_SEQ, SMILE, PROTOBUF);
+
+    private final ObjectMapper cborMapper;
+
+    private final ObjectMapper smileMapper;
+
+    private final EmployeeProtobuf protobuf;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectWriter cborWriter;
+
+    private final ObjectWriter smileWriter;
+
+    public EmployeeFormats(ObjectMapper objectMapper) {
+        cborMapper = objectMapper.copyWith(new CBORFactory());
+        smileMapper = objectMapper.copyWith(new SmileFactory());
+        protobuf = new EmployeeProtobuf(objectMapper);
+        // sequence writers are built once, the newline is written explicitly after every JSON value
+        ndjsonWriter = sequenceWriter(objectMapper).withRootValueSeparator(new SerializedString(""));
+        cborWriter = sequenceWriter(cborMapper);
+        smileWriter = sequenceWriter(smileMapper);
+    }
+
+    public ObjectMapper cborMapper() {
+        return cborMapper;
+    }
+
+    public ObjectMapper smileMapper() {
+        return smileMapper;
+    }
+
+    public EmployeeProtobuf protobuf() {
+        return protobuf;
+    }
+
+    /**
+     * The sequence type to stream for an Accept header, the most specific
+     * accepted type wins and anything unknown falls back to NDJSON.
+     */
+    public static MediaType sequenceType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return SEQUENCE_TYPES.get(0);
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType sequenceType : SEQUENCE_TYPES) {
+                if (acceptedType.isCompatibleWith(sequenceType)) {
+                    return sequenceType;
+                }
+            }
+        }
+        return SEQUENCE_TYPES.get(0);
+    }
+
+    public EmployeeSequenceWriter sequenceWriter(MediaType mediaType, OutputStream outputStream) throws IOException {
+        if (CBOR_SEQ.equalsTypeAndSubtype(mediaType)) {
+            return EmployeeSequenceWriter.jackson(cborWriter, outputStream, false);
+        }
+        if (SMILE.equalsTypeAndSubtype(mediaType)) {
+            return EmployeeSequenceWriter.jackson(smileWriter, outputStream, false);
+        }
+        if (PROTOBUF.equalsTypeAndSubtype(mediaType)) {
+            return EmployeeSequenceWriter.delimitedProtobuf(protobuf, outputStream);
+        }
+        return EmployeeSequenceWriter.jackson(ndjsonWriter, outputStream, true);
+    }
+
+    // flushed once at the end instead of after every value, the response stream stays open
+    private static ObjectWriter sequenceWriter(ObjectMapper mapper) {
+        return mapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,93 @@
+package com.jp.springboot.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.jp.springboot.model.Employee;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Protobuf encoding of employees following proto/employee.proto, through
+ * Jackson so the entity needs no generated message classes. Protobuf has no
+ * top-level lists, a list goes out as an EmployeeList message.
+ */
+public class EmployeeProtobuf {
+
+    static final String SCHEMA = "proto/employee.proto";
+
+    private static final String LIST_MESSAGE = "EmployeeList";
+
+    private final ObjectWriter employeeWriter;
+
+    private final ObjectWriter listWriter;
+
+    private final ObjectReader employeeReader;
+
+    private final ObjectReader listReader;
+
+    public EmployeeProtobuf(ObjectMapper objectMapper) {
+        ObjectMapper protobufMapper = objectMapper.copyWith(new ProtobufFactory());
+        ProtobufSchema schema;
+        try (InputStream proto = new ClassPathResource(SCHEMA).getInputStream()) {
+            schema = ProtobufSchemaLoader.std.load(proto);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + SCHEMA, e);
+        }
+        ProtobufSchema listSchema = schema.withRootType(LIST_MESSAGE);
+        employeeWriter = protobufMapper.writerFor(Employee.class).with(schema);
+        listWriter = protobufMapper.writerFor(EmployeeList.class).with(listSchema);
+        employeeReader = protobufMapper.readerFor(Employee.class).with(schema);
+        listReader = protobufMapper.readerFor(EmployeeList.class).with(listSchema);
+    }
+
+    public void writeEmployee(Employee employee, OutputStream outputStream) throws IOException {
+        employeeWriter.writeValue(outputStream, employee);
+    }
+
+    public void writeEmployees(List<Employee> employees, OutputStream outputStream) throws IOException {
+        listWriter.writeValue(outputStream, new EmployeeList(employees));
+    }
+
+    // varint length, then the message, what protobuf-java reads back with parseDelimitedFrom
+    public void writeDelimited(Employee employee, OutputStream outputStream) throws IOException {
+        byte[] message = employeeWriter.writeValueAsBytes(employee);
+        int length = message.length;
+        while ((length & ~0x7F) != 0) {
+            outputStream.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        outputStream.write(length);
+        outputStream.write(message);
+    }
+
+    public Employee readEmployee(InputStream inputStream) throws IOException {
+        return employeeReader.readValue(inputStream);
+    }
+
+    public List<Employee> readEmployees(InputStream inputStream) throws IOException {
+        EmployeeList list = listReader.readValue(inputStream);
+        return list.employees == null ? List.of() : list.employees;
+    }
+
+    // the EmployeeList message
+    static class EmployeeList {
+
+        public List<Employee> employees;
+
+        EmployeeList() {
+        }
+
+        EmployeeList(List<Employee> employees) {
+            this.employees = employees;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.jp.springboot.codec;
+
+import com.jp.springboot.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes an {@link Employee} or a list of them as application/x-protobuf,
+ * see {@link EmployeeProtobuf}. Any other type is left to the other converters.
+ */
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final EmployeeProtobuf protobuf;
+
+    public EmployeeProtobufHttpMessageConverter(EmployeeProtobuf protobuf) {
+        super(EmployeeFormats.PROTOBUF);
+        this.protobuf = protobuf;
+    }
+
+    // MVC asks by the runtime class when collecting producible types, the generic checks below narrow lists down
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isEmployeeOrList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isEmployeeOrList(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return protobuf.readEmployee(inputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return isList(type)
+                    ? protobuf.readEmployees(inputMessage.getBody())
+                    : protobuf.readEmployee(inputMessage.getBody());
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf employee: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (value instanceof List<?> employees) {
+            protobuf.writeEmployees((List<Employee>) employees, outputMessage.getBody());
+        } else {
+            protobuf.writeEmployee((Employee) value, outputMessage.getBody());
+        }
+    }
+
+    private static boolean isEmployeeOrList(Type type) {
+        return type == Employee.class || isList(type);
+    }
+
+    private static boolean isList(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.getGeneric(0).toClass() == Employee.class;
+    }
+}
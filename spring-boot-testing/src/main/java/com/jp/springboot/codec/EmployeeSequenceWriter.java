@@ -0,0 +1,51 @@
+package com.jp.springboot.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jp.springboot.model.Employee;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes employees one after another to a stream, framed so that a consumer
+ * can read them back one at a time. Closing flushes but leaves the stream open.
+ */
+public interface EmployeeSequenceWriter extends Closeable {
+
+    void write(Employee employee) throws IOException;
+
+    // one generator for the whole sequence, a newline after every value for NDJSON
+    static EmployeeSequenceWriter jackson(ObjectWriter writer, OutputStream outputStream, boolean newlines) throws IOException {
+        JsonGenerator generator = writer.createGenerator(outputStream);
+        return new EmployeeSequenceWriter() {
+            @Override
+            public void write(Employee employee) throws IOException {
+                writer.writeValue(generator, employee);
+                if (newlines) {
+                    generator.writeRaw('\n');
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+
+    static EmployeeSequenceWriter delimitedProtobuf(EmployeeProtobuf protobuf, OutputStream outputStream) {
+        return new EmployeeSequenceWriter() {
+            @Override
+            public void write(Employee employee) throws IOException {
+                protobuf.writeDelimited(employee, outputStream);
+            }
+
+            @Override
+            public void close() throws IOException {
+                outputStream.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.jp.springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor behind {@link com.jp.springboot.service.AsyncEmployeeService}. Both
+ * the pool and its queue are bounded: once they are full new calls are
+ * rejected straight away instead of waiting in an ever growing queue.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String EMPLOYEE_SERVICE_EXECUTOR = "employeeServiceExecutor";
+
+    @Bean(name = EMPLOYEE_SERVICE_EXECUTOR)
+    public ThreadPoolTaskExecutor employeeServiceExecutor(TaskExecutorBuilder builder,
+                                                          @Value("${employee.async.pool-size:16}") int poolSize,
+                                                          @Value("${employee.async.queue-capacity:200}") int queueCapacity) {
+        return builder.corePoolSize(poolSize)
+                .maxPoolSize(poolSize)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("employee-async-")
+                .build();
+    }
+
+    // any Executor bean switches off Boot's own applicationTaskExecutor, MVC async work keeps a pool of its own
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @ConditionalOnProperty(name = "employee.threads.virtual", havingValue = "false", matchIfMissing = true)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
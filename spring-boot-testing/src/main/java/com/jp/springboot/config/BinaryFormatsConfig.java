@@ -0,0 +1,49 @@
+package com.jp.springboot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jp.springboot.codec.EmployeeFormats;
+import com.jp.springboot.codec.EmployeeProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR, Smile and Protobuf next to JSON, picked by the Accept and
+ * Content-Type headers. Boot swaps a converter bean in for its default of the
+ * same class and puts any other one in front of JSON, so the protobuf
+ * converter is appended instead: clients that accept anything keep getting JSON.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    private final EmployeeFormats employeeFormats;
+
+    public BinaryFormatsConfig(ObjectMapper objectMapper) {
+        this.employeeFormats = new EmployeeFormats(objectMapper);
+    }
+
+    @Bean
+    public EmployeeFormats employeeFormats() {
+        return employeeFormats;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(employeeFormats.cborMapper());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(employeeFormats.smileMapper());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new EmployeeProtobufHttpMessageConverter(employeeFormats.protobuf()));
+    }
+}
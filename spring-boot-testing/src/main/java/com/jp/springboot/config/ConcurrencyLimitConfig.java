@@ -0,0 +1,61 @@
+package com.jp.springboot.config;
+
+import com.jp.springboot.limiter.AdaptiveConcurrencyLimiter;
+import com.jp.springboot.limiter.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Adaptive concurrency limits in front of the employee endpoints, see
+ * {@link AdaptiveConcurrencyLimiter}. Current limits, requests in flight and
+ * rejections are published per endpoint class (read or write). Opt-in with
+ * employee.concurrency-limit.enabled=true, the load runs so far came out worse
+ * with the limiter than without it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    public static final String LIMIT_GAUGE = "employee.concurrency.limit";
+    public static final String IN_FLIGHT_GAUGE = "employee.concurrency.in-flight";
+    public static final String REJECTED_COUNTER = "employee.concurrency.rejected";
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(MeterRegistry meterRegistry,
+                                                                                 @Value("${employee.concurrency-limit.initial:20}") int initialLimit,
+                                                                                 @Value("${employee.concurrency-limit.min:4}") int minLimit,
+                                                                                 @Value("${employee.concurrency-limit.max:200}") int maxLimit,
+                                                                                 @Value("${employee.concurrency-limit.tolerance:2.0}") double tolerance,
+                                                                                 @Value("${employee.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, backoffRatio);
+        AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, backoffRatio);
+        register(meterRegistry, "read", readLimiter);
+        register(meterRegistry, "write", writeLimiter);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readLimiter, writeLimiter));
+        registration.addUrlPatterns("/api/employees/*", "/api/async/employees/*");
+        // before any other work is spent on a request that is going to be rejected
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    private static void register(MeterRegistry meterRegistry, String endpoint, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder(LIMIT_GAUGE, limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_GAUGE, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        FunctionCounter.builder(REJECTED_COUNTER, limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
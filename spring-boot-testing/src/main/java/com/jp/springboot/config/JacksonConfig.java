@@ -0,0 +1,23 @@
+package com.jp.springboot.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson tuning for the REST layer. Spring Boot registers every Module bean
+ * with the application ObjectMapper, so the message converters and the export
+ * writer pick it up without further configuration.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // bean (de)serializers call generated lambdas instead of reflective getters and setters
+    // opt-in: EmployeeJsonBenchmark measured Employee serialization about 20% slower with it
+    @Bean
+    @ConditionalOnProperty(name = "employee.json.blackbird", havingValue = "true")
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
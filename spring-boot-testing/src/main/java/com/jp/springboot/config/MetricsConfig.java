@@ -0,0 +1,58 @@
+package com.jp.springboot.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Meters on top of the ones Boot registers by itself: repository invocations
+ * (spring.data.repository.invocations) and the Hikari pool (hikaricp.connections.*)
+ * are already timed. Histogram buckets are switched on per meter in
+ * application.properties and scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // one timer per EmployeeService method, tagged with class and method
+    public static final String SERVICE_TIMER = "employee.service";
+
+    // rows returned by collection and slice queries, tagged with the repository method
+    public static final String REPOSITORY_RESULTS = "employee.repository.results";
+
+    @Bean
+    public OutermostTimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new OutermostTimedAspect(new TimedAspect(meterRegistry));
+    }
+
+    /**
+     * Makes @Timed work on any bean. A plain TimedAspect bean has no order and
+     * runs inside the cache and transaction advice, so cache hits would never
+     * reach the timer and commits would not be part of the time.
+     */
+    @Aspect
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public static class OutermostTimedAspect {
+
+        private final TimedAspect timedAspect;
+
+        OutermostTimedAspect(TimedAspect timedAspect) {
+            this.timedAspect = timedAspect;
+        }
+
+        @Around("@within(io.micrometer.core.annotation.Timed)")
+        public Object timedClass(ProceedingJoinPoint joinPoint) throws Throwable {
+            return timedAspect.timedClass(joinPoint);
+        }
+
+        @Around("execution (@io.micrometer.core.annotation.Timed * *.*(..))")
+        public Object timedMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+            return timedAspect.timedMethod(joinPoint);
+        }
+    }
+}
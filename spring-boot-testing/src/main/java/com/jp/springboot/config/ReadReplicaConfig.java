@@ -0,0 +1,99 @@
+package com.jp.springboot.config;
+
+import com.jp.springboot.datasource.ReadWriteRoutingDataSource;
+import com.jp.springboot.datasource.ReadYourWrites;
+import com.jp.springboot.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas behind the application DataSource, switched on by listing
+ * them in employee.datasource.replica-urls. Replicas use the credentials and
+ * spring.datasource.hikari settings of the primary. Without replicas Boot's
+ * own single pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${employee.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${employee.datasource.replica-selection:round-robin}") String replicaSelection,
+                                 @Value("${employee.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        HikariDataSource primary = pool(properties, environment, meterRegistry, properties.determineUrl(), ReadWriteRoutingDataSource.PRIMARY);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String replicaUrl : replicaUrls) {
+            if (!replicaUrl.isBlank()) {
+                HikariDataSource replica = pool(properties, environment, meterRegistry, replicaUrl.trim(), "replica-" + (replicas.size() + 1));
+                replica.setReadOnly(true);
+                replicas.add(replica);
+            }
+        }
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                ReadWriteRoutingDataSource.ReplicaSelection.valueOf(replicaSelection.trim().toUpperCase().replace('-', '_')),
+                readYourWritesWindow);
+        // defers the routing decision to the first statement, after the transaction is marked read-only
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Spring holds a session's connection until the session ends, with open-in-view that would be the first
+    // transaction's pool for the whole request, a write after a read would end up on the replica
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    // executors built by Boot's TaskExecutorBuilder run tasks for the client that submitted them
+    @Bean
+    public TaskDecorator readYourWritesTaskDecorator() {
+        return task -> {
+            ReadYourWrites client = ReadYourWrites.current();
+            return () -> {
+                try (ReadYourWrites.Binding binding = ReadYourWrites.bind(client)) {
+                    task.run();
+                }
+            };
+        };
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         ObjectProvider<MeterRegistry> meterRegistry, String url, String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        // hikaricp.connections.* tagged with the pool name, Boot only instruments the pool it created itself
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
@@ -0,0 +1,10 @@
+package com.jp.springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// runs the @Scheduled housekeeping, see EmployeeDeltaServiceImpl
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,43 @@
+package com.jp.springboot.config;
+
+import com.jp.springboot.repository.SlowQueryListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the DataSource so every statement passes {@link SlowQueryListener},
+ * instead of spring.jpa.show-sql printing each of them on the request thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.sql.slow-query-log", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    // static, post processors are created before the rest of the configuration
+    @Bean
+    public static BeanPostProcessor slowQueryLogDataSourcePostProcessor(Environment environment) {
+        SlowQueryListener listener = new SlowQueryListener(
+                environment.getProperty("employee.sql.slow-query-threshold", Duration.class, Duration.ofMillis(200)),
+                environment.getProperty("employee.sql.sample-rate", Double.class, 0.0));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                // the result set proxy lets the listener count the rows of a select
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(listener)
+                        .proxyResultSet(listener)
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.jp.springboot.config;
+
+import com.jp.springboot.util.VirtualThreads;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs request handling on virtual threads when employee.threads.virtual=true.
+ * Tomcat starts a virtual thread per request instead of taking one of its 200
+ * workers, so requests waiting on JDBC no longer exhaust the worker pool; the
+ * Hikari pool still bounds how many of them reach MySQL at once. Requires
+ * Java 21, startup fails on older runtimes instead of quietly staying on
+ * platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public ExecutorService requestExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    // async MVC work such as the streamed export runs on virtual threads as well
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService requestExecutor) {
+        return new TaskExecutorAdapter(requestExecutor);
+    }
+}
@@ -0,0 +1,113 @@
+package com.jp.springboot.controller;
+
+import com.jp.springboot.exception.ServiceUnavailableException;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.service.AsyncEmployeeService;
+import com.jp.springboot.service.EmployeeService;
+import com.jp.springboot.util.PageCursor;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Same resource as {@link EmployeeController}, served through {@link AsyncEmployeeService}:
+ * handlers return futures, so the servlet thread goes back to Tomcat while the
+ * database works. A saturated or slow service answers 503 with Retry-After.
+ */
+@RestController
+@RequestMapping("/api/async/employees")
+@AllArgsConstructor
+public class AsyncEmployeeController {
+
+    private AsyncEmployeeService asyncEmployeeService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<Employee> createEmployee(@RequestBody Employee employee){
+        return asyncEmployeeService.saveEmployee(employee);
+    }
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                             @RequestParam(value = "size", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int size){
+        long afterId;
+        try {
+            afterId = cursor == null ? 0 : PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return asyncEmployeeService.getEmployees(afterId, size).thenApply(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                List<Employee> content = page.getContent();
+                response.header(EmployeeController.NEXT_CURSOR_HEADER,
+                        PageCursor.encode(content.get(content.size() - 1).getId()));
+            }
+            return response.body(page.getContent());
+        });
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId){
+        return asyncEmployeeService.getEmployeeById(employeeId)
+                .thenApply(employee -> employee
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId,@RequestBody Employee employee){
+        return asyncEmployeeService.getEmployeeById(employeeId)
+                .thenCompose(savedEmployee -> {
+                    if (savedEmployee.isEmpty()) {
+                        return CompletableFuture.completedFuture(ResponseEntity.<Employee>notFound().build());
+                    }
+                    // never modify the looked up instance, it may be shared through the cache
+                    Employee changedEmployee = Employee.builder()
+                            .id(savedEmployee.get().getId())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .version(savedEmployee.get().getVersion())
+                            .build();
+                    return asyncEmployeeService.updateEmployee(changedEmployee).thenApply(ResponseEntity::ok);
+                });
+    }
+
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<String>> patchEmployee(@PathVariable("id") long employeeId,@RequestBody Employee employee){
+        return asyncEmployeeService.patchEmployee(employeeId, employee)
+                .thenApply(patched -> patched
+                        ? ResponseEntity.ok("Employee Updated Succesfully!.")
+                        : ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<String>> deleteEmployee(@PathVariable ("id") long employeeId){
+        return asyncEmployeeService.deleteEmployee(employeeId)
+                .thenApply(deleted -> deleted
+                        ? ResponseEntity.ok("Employee Deleted Succesfully!.")
+                        : ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> serviceUnavailable(ServiceUnavailableException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    // another request updated the employee between the lookup and the write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> conflict(OptimisticLockingFailureException e){
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(EmployeeController.CONFLICT_MESSAGE);
+    }
+}
@@ -0,0 +1,32 @@
+package com.jp.springboot.controller;
+
+import com.jp.springboot.event.EmployeeChangeFeed;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Committed employee changes as server-sent events, for clients that would
+ * otherwise poll {@link EmployeeController}. Events are named after the change
+ * (created, updated, patched, deleted, bulk_changed) and carry it as JSON.
+ * bulk_changed and reset mean the client has to reload the employees.
+ */
+@RestController
+@RequestMapping("/api/employees")
+@AllArgsConstructor
+public class EmployeeChangeController {
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private EmployeeChangeFeed changeFeed;
+
+    // EventSource sends Last-Event-ID on reconnect, the changes after it are replayed first
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId){
+        return changeFeed.subscribe(lastEventId);
+    }
+}
@@ -1,58 +1,260 @@
 package com.jp.springboot.controller;
 
+import com.jp.springboot.codec.EmployeeFormats;
+import com.jp.springboot.codec.EmployeeSequenceWriter;
+import com.jp.springboot.dto.BulkOperationResult;
+import com.jp.springboot.dto.EmployeeBatchResult;
+import com.jp.springboot.exception.ServiceUnavailableException;
 import com.jp.springboot.model.Employee;
+import com.jp.springboot.service.EmployeeGroupCommitter;
 import com.jp.springboot.service.EmployeeService;
-import lombok.AllArgsConstructor;
+import com.jp.springboot.util.EntityTags;
+import com.jp.springboot.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/employees")
-@AllArgsConstructor
 public class EmployeeController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+    public static final String CONFLICT_MESSAGE = "Employee was changed by another request, fetch it again";
+
+    private static final Pattern EMAIL_DOMAIN = Pattern.compile("[^@\\s.]+(\\.[^@\\s.]+)*");
 
     private EmployeeService employeeService;
 
+    private EmployeeFormats employeeFormats;
+
+    // only there with employee.group-commit.enabled=true
+    private EmployeeGroupCommitter groupCommitter;
+
+    public EmployeeController(EmployeeService employeeService, EmployeeFormats employeeFormats,
+                              ObjectProvider<EmployeeGroupCommitter> groupCommitter) {
+        this.employeeService = employeeService;
+        this.employeeFormats = employeeFormats;
+        this.groupCommitter = groupCommitter.getIfAvailable();
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Employee createEmployee(@RequestBody Employee employee){
+        if (groupCommitter != null) {
+            return groupCommitter.saveEmployee(employee);
+        }
         return employeeService.saveEmployee(employee);
     }
 
+    @PostMapping("/batch")
+    public List<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees){
+        return employeeService.saveEmployees(employees);
+    }
+
     @GetMapping
-    public List<Employee> getAllEmployees(){
-          return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees(@RequestParam(value = "cursor", required = false) String cursor,
+                                                          @RequestParam(value = "size", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int size){
+        long afterId;
+        try {
+            afterId = cursor == null ? 0 : PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<Employee> page = employeeService.getEmployees(afterId, size);
+        // an If-None-Match hit is answered 304 before the page is serialized
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(pageTag(page)).varyBy(HttpHeaders.ACCEPT);
+        if (page.hasNext()) {
+            List<Employee> content = page.getContent();
+            String nextCursor = PageCursor.encode(content.get(content.size() - 1).getId());
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(page.getContent());
     }
 
+    @GetMapping(value = "/search", params = "name")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam("name") String name,
+                                                          @RequestParam(value = "page", defaultValue = "0") int page,
+                                                          @RequestParam(value = "size", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int size){
+        if (name.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<Employee> result = employeeService.searchEmployeesByName(name, page, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(pageTag(result)).varyBy(HttpHeaders.ACCEPT);
+        if (result.hasNext()) {
+            int nextPage = result.getNumber() + 1;
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", nextPage)
+                    .toUriString();
+            response.header(NEXT_PAGE_HEADER, String.valueOf(nextPage))
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(result.getContent());
+    }
+
+    // search-as-you-type over names and emails, served from the in-memory index
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam("q") String query,
+                                                          @RequestParam(value = "limit", defaultValue = "" + EmployeeService.DEFAULT_SEARCH_LIMIT) int limit){
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeService.searchEmployees(query, limit));
+    }
+
+    // one mapping for all formats, NDJSON unless the client asks for a binary sequence
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, EmployeeFormats.CBOR_SEQ_VALUE,
+            EmployeeFormats.SMILE_VALUE, EmployeeFormats.PROTOBUF_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        MediaType mediaType = EmployeeFormats.sequenceType(accept);
+        StreamingResponseBody body = outputStream -> {
+            try (EmployeeSequenceWriter writer = employeeFormats.sequenceWriter(mediaType, outputStream)) {
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        writer.write(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    // an If-None-Match hit is answered 304 before the employee is serialized
+    // the body depends on Accept (JSON, CBOR, Smile or Protobuf), caches have to keep them apart
     @GetMapping("/{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(EntityTags.strong(employee.getVersion())).varyBy(HttpHeaders.ACCEPT).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,@RequestBody Employee employee){
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody Employee employee){
+        Long expectedVersion;
+        try {
+            expectedVersion = EntityTags.ifMatchVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    // never modify the looked up instance, it may be shared through the cache
+                    // the update only goes through if the row still has the version it is based on
+                    Employee changedEmployee = Employee.builder()
+                            .id(savedEmployee.getId())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .version(expectedVersion != null ? expectedVersion : savedEmployee.getVersion())
+                            .build();
+                    Employee updatedEmployee = employeeService.updateEmployee(changedEmployee);
+                    return ResponseEntity.ok().eTag(EntityTags.strong(updatedEmployee.getVersion())).body(updatedEmployee);
                 })
                 .orElseGet(() ->  ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<String> patchEmployee(@PathVariable("id") long employeeId,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody Employee employee){
+        Long expectedVersion;
+        try {
+            expectedVersion = EntityTags.ifMatchVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (!employeeService.patchEmployee(employeeId, expectedVersion, employee)) {
+            return ResponseEntity.notFound().build();
+        }
+        return new ResponseEntity<String>("Employee Updated Succesfully!.", HttpStatus.OK);
+    }
+
+    @PutMapping("/email-domain")
+    public ResponseEntity<BulkOperationResult> updateEmailDomain(@RequestParam("from") String oldDomain,
+                                                                 @RequestParam("to") String newDomain){
+        if (!isEmailDomain(oldDomain) || !isEmailDomain(newDomain)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new BulkOperationResult(employeeService.updateEmailDomain(oldDomain, newDomain)));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable ("id") long employeeId){
-        employeeService.deleteEmployee(employeeId);
+        if (!employeeService.deleteEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<String>("Employee Deleted Succesfully!.", HttpStatus.OK);
     }
 
+    @DeleteMapping(params = "ids")
+    public BulkOperationResult deleteEmployees(@RequestParam("ids") List<Long> employeeIds){
+        return new BulkOperationResult(employeeService.deleteEmployees(employeeIds));
+    }
+
+    @DeleteMapping(params = "domain")
+    public BulkOperationResult deleteEmployeesByEmailDomain(@RequestParam("domain") String domain){
+        return new BulkOperationResult(employeeService.deleteEmployeesByEmailDomain(domain));
+    }
+
+    @DeleteMapping(params = "lastName")
+    public BulkOperationResult deleteEmployeesByLastName(@RequestParam("lastName") String lastName){
+        return new BulkOperationResult(employeeService.deleteEmployeesByLastName(lastName));
+    }
+
+    // 412 if the client named the version it expected, 409 if an unconditional write lost a race
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> versionConflict(OptimisticLockingFailureException e, WebRequest request){
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(CONFLICT_MESSAGE);
+    }
+
+    // the group commit queue is full
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> serviceUnavailable(ServiceUnavailableException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    // weak, the same rows in the same versions are the same page whatever the serialization
+    private static String pageTag(Slice<Employee> page) {
+        long hash = page.hasNext() ? 1 : 0;
+        for (Employee employee : page) {
+            hash = 31 * hash + employee.getId();
+            hash = 31 * hash + employee.getVersion();
+        }
+        return EntityTags.weak(hash);
+    }
+
+    // what follows the '@' of an email, a blank or partial address would rename the wrong emails
+    private static boolean isEmailDomain(String domain) {
+        return EMAIL_DOMAIN.matcher(domain).matches();
+    }
 }
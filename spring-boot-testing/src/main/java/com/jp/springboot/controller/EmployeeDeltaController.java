@@ -0,0 +1,46 @@
+package com.jp.springboot.controller;
+
+import com.jp.springboot.dto.EmployeeDelta;
+import com.jp.springboot.exception.DeltaTokenExpiredException;
+import com.jp.springboot.service.EmployeeDeltaService;
+import com.jp.springboot.service.EmployeeService;
+import com.jp.springboot.util.DeltaToken;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Incremental sync for clients that mirror the employees: the first call
+ * without a token pages through every employee, later calls with the returned
+ * token get only what was created, updated or deleted in between.
+ */
+@RestController
+@RequestMapping("/api/employees")
+@AllArgsConstructor
+public class EmployeeDeltaController {
+
+    private EmployeeDeltaService employeeDeltaService;
+
+    @GetMapping("/delta")
+    public ResponseEntity<EmployeeDelta> getDelta(@RequestParam(value = "since", required = false) String since,
+                                                  @RequestParam(value = "size", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int size){
+        DeltaToken token;
+        try {
+            token = since == null ? DeltaToken.START : DeltaToken.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeDeltaService.getChangesSince(token, size));
+    }
+
+    // deletes after the token may be gone, the client has to start over
+    @ExceptionHandler(DeltaTokenExpiredException.class)
+    public ResponseEntity<String> tokenExpired(DeltaTokenExpiredException e){
+        return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+    }
+}
@@ -0,0 +1,103 @@
+package com.jp.springboot.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the
+ * primary. Committing a read-write transaction pins the reads of the current
+ * {@link ReadYourWrites} client to the primary for the configured window.
+ * <p>
+ * The routing decision is made when a connection is fetched, so this has to
+ * sit behind a LazyConnectionDataSourceProxy: the transaction manager asks
+ * for the connection before the transaction is marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    public enum ReplicaSelection {
+        ROUND_ROBIN,
+        // fewest active connections plus threads waiting for one
+        LEAST_LOADED
+    }
+
+    private final List<HikariDataSource> replicas;
+
+    private final ReplicaSelection replicaSelection;
+
+    private final long readYourWritesMillis;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      ReplicaSelection replicaSelection, Duration readYourWritesWindow) {
+        this.replicas = List.copyOf(replicas);
+        this.replicaSelection = replicaSelection;
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+        setTargetDataSources(targets);
+        // connections outside of transactions (Flyway, health checks) go to the primary
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                ReadYourWrites client = ReadYourWrites.current();
+                // the window starts once the change is committed, that is when replication can start
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        client.written(System.currentTimeMillis() + readYourWritesMillis);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || ReadYourWrites.current().readsFromPrimary()) {
+            return PRIMARY;
+        }
+        return selectReplica().getPoolName();
+    }
+
+    HikariDataSource selectReplica() {
+        if (replicaSelection == ReplicaSelection.ROUND_ROBIN || replicas.size() == 1) {
+            return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+        }
+        // start at a rotating offset, idle replicas take turns instead of the first one getting everything
+        int offset = nextReplica.getAndIncrement();
+        HikariDataSource leastLoaded = null;
+        int lowestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(Math.floorMod(offset + i, replicas.size()));
+            int load = load(replica);
+            if (load < lowestLoad) {
+                leastLoaded = replica;
+                lowestLoad = load;
+            }
+        }
+        return leastLoaded;
+    }
+
+    // the pool starts with its first connection, until then nothing is in use
+    private static int load(HikariDataSource replica) {
+        HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+}
@@ -0,0 +1,72 @@
+package com.jp.springboot.datasource;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Remembers until when a client has to read from the primary because it wrote
+ * recently and the replicas may not have caught up yet. One instance per
+ * client, bound to the thread that works for it; threads nobody bound one to
+ * get their own.
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = ThreadLocal.withInitial(() -> new ReadYourWrites(0, until -> {
+    }));
+
+    private static final ReadYourWrites PRIMARY_ONLY = new ReadYourWrites(Long.MAX_VALUE, until -> {
+    });
+
+    // epoch millis, so the deadline can travel in a cookie
+    private volatile long primaryUntil;
+
+    private final LongConsumer onWrite;
+
+    public ReadYourWrites(long primaryUntil, LongConsumer onWrite) {
+        this.primaryUntil = primaryUntil;
+        this.onWrite = onWrite;
+    }
+
+    public static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * A client that always reads from the primary, for reads whose result
+     * outlives the request, such as cache entries and the search index. A
+     * replica's lag would stay in them long after the replica caught up.
+     */
+    public static ReadYourWrites primaryOnly() {
+        return PRIMARY_ONLY;
+    }
+
+    /**
+     * Makes {@code client} the current one of this thread until the returned
+     * binding is closed, which restores the previous one.
+     */
+    public static Binding bind(ReadYourWrites client) {
+        ReadYourWrites previous = CURRENT.get();
+        CURRENT.set(client);
+        return () -> CURRENT.set(previous);
+    }
+
+    public boolean readsFromPrimary() {
+        return System.currentTimeMillis() < primaryUntil;
+    }
+
+    public long primaryUntil() {
+        return primaryUntil;
+    }
+
+    public void written(long until) {
+        if (until > primaryUntil) {
+            primaryUntil = until;
+            onWrite.accept(until);
+        }
+    }
+
+    public interface Binding extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
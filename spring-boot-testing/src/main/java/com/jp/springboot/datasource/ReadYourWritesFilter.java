@@ -0,0 +1,49 @@
+package com.jp.springboot.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Carries {@link ReadYourWrites} from one request to the next in a cookie, so a
+ * client reading back what it just wrote is served by the primary. Clients
+ * that drop cookies only get the stickiness within a request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "employee-primary-until";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWrites client = new ReadYourWrites(primaryUntil(request), until -> {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (until - System.currentTimeMillis() + 999) / 1000));
+            response.addCookie(cookie);
+        });
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(client)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    // a missing or garbled cookie only means the reads may go to a replica
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.jp.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationResult {
+
+    // number of rows deleted or updated
+    private int affected;
+}
@@ -0,0 +1,26 @@
+package com.jp.springboot.dto;
+
+import com.jp.springboot.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeBatchResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE_EMAIL,
+        INVALID
+    }
+
+    // position of the employee in the request array
+    private int index;
+    private Status status;
+    private Employee employee;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.jp.springboot.dto;
+
+import com.jp.springboot.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeDelta {
+
+    // created or updated since the token, in their current state
+    private List<Employee> changed;
+    // ids of the employees deleted since the token
+    private List<Long> deleted;
+    // token for the next call, the same one if nothing changed
+    private String next;
+    // more changes are ready, call again with next right away
+    private boolean hasMore;
+}
@@ -0,0 +1,297 @@
+package com.jp.springboot.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams committed employee changes to server-sent event subscribers. Every
+ * change is serialized once into the {@link EmployeeChangeLog} and fanned out
+ * to per-subscriber queues, a small pool of delivery threads writes them, so
+ * no thread is held per subscriber. A subscriber more than max-pending events
+ * behind is disconnected and resumes from the log when it reconnects with
+ * Last-Event-ID. Subscribers whose position is no longer in the log, or comes
+ * from another server or an earlier run, get a reset event and should reload.
+ * <p>
+ * Writes block while a client is not reading. A write still running after
+ * write-timeout drops its subscriber and the pool gets a thread in place of
+ * the stuck one until the container's own write timeout frees it, so clients
+ * that stop reading cannot hold up delivery to everybody else.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeFeed implements DisposableBean {
+
+    public static final String SUBSCRIBERS_GAUGE = "employee.changes.subscribers";
+    public static final String RESET_EVENT = "reset";
+
+    // browsers reconnect after this long, sending the last id they saw
+    private static final long RECONNECT_MILLIS = 1000;
+
+    private static final EmployeeChangeLog.Change HEARTBEAT = new EmployeeChangeLog.Change(0, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final EmployeeChangeLog changeLog;
+    private final int maxPending;
+    private final Duration timeout;
+    private final long writeTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor deliveryExecutor;
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    public EmployeeChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${employee.changes.buffer-size:10000}") int bufferSize,
+                              @Value("${employee.changes.max-pending:1000}") int maxPending,
+                              @Value("${employee.changes.delivery-threads:4}") int deliveryThreads,
+                              @Value("${employee.changes.heartbeat:15s}") Duration heartbeat,
+                              @Value("${employee.changes.timeout:30m}") Duration timeout,
+                              @Value("${employee.changes.write-timeout:10s}") Duration writeTimeout) {
+        this.objectMapper = objectMapper;
+        // numbered from the start time in microseconds, ids handed out by an earlier run are always too old
+        this.changeLog = new EmployeeChangeLog(bufferSize, System.currentTimeMillis() * 1000);
+        this.maxPending = maxPending;
+        this.timeout = timeout;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.deliveryExecutor = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("employee-changes"));
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("employee-changes-heartbeat"));
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        long writeCheckMillis = Math.max(10, writeTimeout.toMillis() / 2);
+        heartbeatExecutor.scheduleWithFixedDelay(this::dropStuckWrites, writeCheckMillis, writeCheckMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder(SUBSCRIBERS_GAUGE, subscribers, Set::size).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Employee change could not be serialized", e);
+        }
+        // in the lock, so a subscriber registering meanwhile gets the change either from the log or live
+        synchronized (changeLog) {
+            EmployeeChangeLog.Change change = changeLog.append(event.getType().name().toLowerCase(), data);
+            subscribers.forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    // lastEventId null streams the changes from now on
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        try {
+            // held until the response starts, gets the headers out before the first change
+            subscriber.emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (changeLog) {
+            if (lastEventId != null) {
+                List<EmployeeChangeLog.Change> missed = resumableAfter(lastEventId);
+                if (missed != null) {
+                    missed.forEach(subscriber::replay);
+                } else {
+                    subscriber.replay(new EmployeeChangeLog.Change(changeLog.lastSequence(), RESET_EVENT, "{}"));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeatExecutor.shutdownNow();
+        deliveryExecutor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private List<EmployeeChangeLog.Change> resumableAfter(String lastEventId) {
+        try {
+            return changeLog.since(Long.parseLong(lastEventId.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // comments nobody sees, they keep proxies from closing idle streams and find clients that went away
+    private void heartbeat() {
+        subscribers.forEach(subscriber -> {
+            if (subscriber.pending.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        });
+    }
+
+    // completing the emitter would wait for the stuck write, the delivery thread does it once the write gives up
+    private void dropStuckWrites() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.writing && now - subscriber.writeStartedNanos > writeTimeoutNanos
+                    && subscriber.stuck.compareAndSet(false, true)) {
+                subscriber.closed = true;
+                subscribers.remove(subscriber);
+                resizeDeliveryPool(1);
+                log.debug("Employee change subscriber stopped reading, dropped after {} ms", writeTimeoutNanos / 1_000_000);
+            }
+        });
+    }
+
+    // the maximum grows first and shrinks last, the core size may never exceed it
+    private synchronized void resizeDeliveryPool(int delta) {
+        int size = deliveryExecutor.getCorePoolSize() + delta;
+        if (delta > 0) {
+            deliveryExecutor.setMaximumPoolSize(size);
+            deliveryExecutor.setCorePoolSize(size);
+        } else {
+            deliveryExecutor.setCorePoolSize(size);
+            deliveryExecutor.setMaximumPoolSize(size);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Queue<EmployeeChangeLog.Change> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        // one delivery thread at a time per subscriber, so events go out in order
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // replayed changes at the head of the queue, only touched by the delivery thread once scheduled
+        private int replaying;
+        private volatile boolean closed;
+        // watched by dropStuckWrites
+        private volatile boolean writing;
+        private volatile long writeStartedNanos;
+        private final AtomicBoolean stuck = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // missed changes on subscribe are not counted against max-pending, the log bounds them
+        private void replay(EmployeeChangeLog.Change change) {
+            pending.add(change);
+            replaying++;
+        }
+
+        private void offer(EmployeeChangeLog.Change change) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                // completing here could block behind a write in progress, the delivery thread does it
+                closed = true;
+                log.debug("Employee change subscriber is {} events behind, disconnecting", maxPending);
+            } else {
+                pending.add(change);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    deliveryExecutor.execute(this);
+                } catch (RuntimeException e) {
+                    // shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                EmployeeChangeLog.Change change;
+                while (!closed && (change = pending.poll()) != null) {
+                    if (replaying > 0) {
+                        replaying--;
+                    } else {
+                        pendingCount.decrementAndGet();
+                    }
+                    writeStartedNanos = System.nanoTime();
+                    writing = true;
+                    try {
+                        emitter.send(event(change));
+                    } finally {
+                        writing = false;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter completed, the container cleans up the request
+                closed = true;
+                subscribers.remove(this);
+                return;
+            } finally {
+                scheduled.set(false);
+                if (stuck.compareAndSet(true, false)) {
+                    // this thread is back, the one standing in for it goes
+                    resizeDeliveryPool(-1);
+                }
+            }
+            if (closed) {
+                subscribers.remove(this);
+                pending.clear();
+                emitter.complete();
+            } else if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private SseEmitter.SseEventBuilder event(EmployeeChangeLog.Change change) {
+            if (change == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .id(Long.toString(change.sequence()))
+                    .name(change.type())
+                    .data(change.data());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.jp.springboot.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The most recent employee changes in a fixed-size ring, each under a
+ * sequence number one higher than the one before. Clients that saw a sequence
+ * number can ask for everything after it, for as long as it is still in the
+ * ring. Thread safe.
+ */
+public class EmployeeChangeLog {
+
+    public record Change(long sequence, String type, String data) {
+    }
+
+    private final Change[] changes;
+
+    private long lastSequence;
+
+    private long appended;
+
+    // the first change is numbered startAfter + 1
+    public EmployeeChangeLog(int capacity, long startAfter) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.changes = new Change[capacity];
+        this.lastSequence = startAfter;
+    }
+
+    public synchronized Change append(String type, String data) {
+        Change change = new Change(++lastSequence, type, data);
+        changes[(int) (lastSequence % changes.length)] = change;
+        appended++;
+        return change;
+    }
+
+    // the changes after the given one, oldest first, or null if it fell out of the ring or was never handed out
+    public synchronized List<Change> since(long sequence) {
+        long retained = Math.min(appended, changes.length);
+        if (sequence > lastSequence || sequence < lastSequence - retained) {
+            return null;
+        }
+        List<Change> result = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            result.add(changes[(int) (next % changes.length)]);
+        }
+        return result;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+}
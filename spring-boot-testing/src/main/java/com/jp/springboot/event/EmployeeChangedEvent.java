@@ -0,0 +1,62 @@
+package com.jp.springboot.event;
+
+import com.jp.springboot.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the employee service for every committed change. The employee
+ * is a copy of the state after the change: for PATCHED only the changed fields
+ * are set, for DELETED and BULK_CHANGED it is null. BULK_CHANGED stands for
+ * set-based statements whose affected rows are not known individually.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        PATCHED,
+        DELETED,
+        BULK_CHANGED
+    }
+
+    private final Type type;
+
+    private final long employeeId;
+
+    private final Employee employee;
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(Type.CREATED, employee.getId(), copyOf(employee));
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(Type.UPDATED, employee.getId(), copyOf(employee));
+    }
+
+    public static EmployeeChangedEvent patched(long id, Employee changes) {
+        Employee patch = copyOf(changes);
+        patch.setId(id);
+        return new EmployeeChangedEvent(Type.PATCHED, id, patch);
+    }
+
+    public static EmployeeChangedEvent deleted(long id) {
+        return new EmployeeChangedEvent(Type.DELETED, id, null);
+    }
+
+    public static EmployeeChangedEvent bulkChanged() {
+        return new EmployeeChangedEvent(Type.BULK_CHANGED, 0, null);
+    }
+
+    // entities stay mutable after the event is published, listeners get their own copy
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+}
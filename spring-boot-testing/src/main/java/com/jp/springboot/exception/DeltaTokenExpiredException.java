@@ -0,0 +1,7 @@
+package com.jp.springboot.exception;
+
+public class DeltaTokenExpiredException extends RuntimeException{
+    public DeltaTokenExpiredException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.jp.springboot.exception;
+
+public class ServiceUnavailableException extends RuntimeException{
+    public ServiceUnavailableException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
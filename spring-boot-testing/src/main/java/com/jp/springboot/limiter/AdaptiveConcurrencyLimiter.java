@@ -0,0 +1,126 @@
+package com.jp.springboot.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests in flight with a limit that follows latency,
+ * AIMD style: the limit grows by one while requests come back as fast as they
+ * do without load and the limit is actually used, and shrinks by a fraction,
+ * at most once per round trip, when latency climbs past tolerance times that
+ * baseline or a request fails. Requests beyond the limit are rejected instead
+ * of queueing for a connection, which keeps latency and goodput flat under
+ * overload.
+ * <p>
+ * The baseline only learns from requests that started with the limit less than
+ * half used, so it keeps describing an unloaded server while overloaded.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // weights of a new sample in the short term and the baseline latency averages
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    // guarded by this
+    private double shortLatency;
+    private double baselineLatency;
+    private long lastDecrease;
+    private boolean decreased;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max but got " + minLimit + ", "
+                    + initialLimit + ", " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * A permit for one request, or null when the limit is reached. The permit
+     * has to be released exactly once when the request completes.
+     */
+    public Permit tryAcquire(long nowNanos) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(nowNanos, current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long startNanos, long endNanos, int inFlightAtStart, boolean dropped) {
+        long latency = endNanos - startNanos;
+        if (baselineLatency == 0) {
+            baselineLatency = latency;
+            shortLatency = latency;
+        }
+        shortLatency += SHORT_WEIGHT * (latency - shortLatency);
+        int current = limit;
+        if (inFlightAtStart * 2 < current && !dropped) {
+            baselineLatency += BASELINE_WEIGHT * (latency - baselineLatency);
+        }
+
+        if (dropped || shortLatency > tolerance * baselineLatency) {
+            // one decrease per round trip, the requests that were already in flight saw the same congestion
+            if (!decreased || startNanos - lastDecrease >= 0) {
+                limit = Math.max(minLimit, (int) (current * backoffRatio));
+                lastDecrease = endNanos;
+                decreased = true;
+            }
+        } else if (inFlightAtStart * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public class Permit {
+
+        private final long startNanos;
+
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // dropped: the request failed in a way that points at overload, e.g. a timeout or a 5xx
+        public void release(long endNanos, boolean dropped) {
+            inFlight.decrementAndGet();
+            onSample(startNanos, endNanos, inFlightAtStart, dropped);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jp.springboot.limiter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs employee requests under one {@link AdaptiveConcurrencyLimiter} for reads
+ * and one for writes, so a burst of slow writes does not starve the reads.
+ * Requests over the limit get a 503 with Retry-After straight away. Async
+ * requests keep their permit until the async processing completes.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String REJECTED_MESSAGE = "Too many concurrent requests, retry later";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+    }
+
+    // exports stream for minutes and change feeds for as long as the client listens,
+    // their latency says nothing about congestion
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.endsWith("/export") || uri.endsWith("/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(System.nanoTime());
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(REJECTED_MESSAGE);
+            return;
+        }
+
+        // an exception escaping the chain ends up as a 500 as well
+        boolean dropped = true;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(permit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release(System.nanoTime(), dropped);
+            }
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private record PermitReleasingListener(AdaptiveConcurrencyLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release(System.nanoTime(), ((HttpServletResponse) event.getSuppliedResponse()).getStatus() >= 500);
+        }
+
+        // onComplete follows timeouts and errors, the permit is released there
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package com.jp.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDateTime;
 
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+// toBuilder: copies for the cache and for listeners, entities stay mutable while they are managed
+@Builder(toBuilder = true)
 @Entity
-@Table(name="employees")
+// updates only write the columns that actually changed
+@DynamicUpdate
+@Table(name="employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                @Index(name = Employee.NAME_INDEX, columnList = "last_name, first_name"),
+                @Index(name = Employee.UPDATED_AT_INDEX, columnList = "updated_at, id")
+        })
 public class Employee {
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email";
+    public static final String NAME_INDEX = "idx_employees_last_first";
+    public static final String UPDATED_AT_INDEX = "idx_employees_updated_at";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -20,4 +36,17 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    // bumped by every update, clients see it as the ETag rather than in the body
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private long version;
+    // set by the database on insert and on every update, bulk statements included
+    // delta clients track them through the delta token, not through the body
+    @Column(name="created_at", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime createdAt;
+    @Column(name="updated_at", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
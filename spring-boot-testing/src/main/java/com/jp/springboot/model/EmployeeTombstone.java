@@ -0,0 +1,26 @@
+package com.jp.springboot.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// an employee that was deleted, kept so delta clients learn about the delete
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name="employee_tombstones",
+        indexes = @Index(name = EmployeeTombstone.DELETED_AT_INDEX, columnList = "deleted_at, employee_id"))
+public class EmployeeTombstone {
+    public static final String DELETED_AT_INDEX = "idx_employee_tombstones_deleted_at";
+
+    @Id
+    @Column(name="employee_id")
+    private long employeeId;
+    // set by the database
+    @Column(name="deleted_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,23 @@
+package com.jp.springboot.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// how far tombstones have been purged, a single row
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name="employee_tombstone_purges")
+public class EmployeeTombstonePurge {
+
+    @Id
+    private int id;
+    // deletion time of the newest purged tombstone
+    @Column(name="purged_through", nullable = false)
+    private LocalDateTime purgedThrough;
+}
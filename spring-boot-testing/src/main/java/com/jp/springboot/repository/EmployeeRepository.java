@@ -1,28 +1,163 @@
 package com.jp.springboot.repository;
 
 import com.jp.springboot.model.Employee;
+import com.jp.springboot.model.EmployeeTombstone;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee,Long> {
+public interface EmployeeRepository extends JpaRepository<Employee,Long>, EmployeeRepositoryCustom {
     Optional<Employee> findByEmail(String email);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.email from Employee e")
+    Stream<String> streamAllEmails();
+
+    // set-based duplicate check for bulk inserts
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // keyset pagination on the primary key, a Slice never issues a count query
+    Slice<Employee> findByIdGreaterThan(long id, Pageable pageable);
+
+    // stream the whole table for exports, must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAll();
+
+    // partial update in a single statement, null parameters keep the current value
+    // a null version updates any version, otherwise only that one
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), " +
+            "e.lastName = coalesce(:lastName, e.lastName), e.email = coalesce(:email, e.email), " +
+            "e.version = e.version + 1 " +
+            "where e.id = :id and (:version is null or e.version = :version)")
+    int patchEmployee(@Param("id") long id, @Param("version") Long version, @Param("firstName") String firstName,
+                      @Param("lastName") String lastName, @Param("email") String email);
+
+    // set-based deletes and updates, none of them loads the entities first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
+
+    // locks the rows, so a concurrent delete cannot remove one between this and the delete
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteEmployeesByIds(@Param("ids") Collection<Long> ids);
+
+    // tombstones for delta clients, written in the transaction of the delete
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("insert into EmployeeTombstone (employeeId) values (:id)")
+    int insertTombstone(@Param("id") long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("insert into EmployeeTombstone (employeeId) select e.id from Employee e where e.id in :ids")
+    int insertTombstonesByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("insert into EmployeeTombstone (employeeId) select e.id from Employee e " +
+            "where e.email like concat('%@', :domain) escape '!'")
+    int insertTombstonesByEmailDomain(@Param("domain") String domain);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("insert into EmployeeTombstone (employeeId) select e.id from Employee e where e.lastName = :lastName")
+    int insertTombstonesByLastName(@Param("lastName") String lastName);
+
+    @Query("select max(t.deletedAt) from EmployeeTombstone t where t.deletedAt < :before")
+    LocalDateTime findLastDeletedBefore(@Param("before") LocalDateTime before);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from EmployeeTombstone t where t.deletedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
+
+    @Query("select p.purgedThrough from EmployeeTombstonePurge p")
+    LocalDateTime findTombstonesPurgedThrough();
+
+    // never moves back, also when purges of two instances overlap
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update EmployeeTombstonePurge p set p.purgedThrough = :through where p.purgedThrough < :through")
+    int advanceTombstonesPurgedThrough(@Param("through") LocalDateTime through);
+
+    // delta sync, keyset on (updated_at, id) and (deleted_at, employee_id), both range scans on their index
+    // rows from before is on are left for the next call, their transaction may not have committed everything yet
+    @Query("select e from Employee e where e.updatedAt >= :since and (e.updatedAt > :since or e.id > :afterId) " +
+            "and e.updatedAt < :before order by e.updatedAt, e.id")
+    List<Employee> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") long afterId,
+                                    @Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query("select t from EmployeeTombstone t where t.deletedAt >= :since and (t.deletedAt > :since or t.employeeId > :afterId) " +
+            "and t.deletedAt < :before order by t.deletedAt, t.employeeId")
+    List<EmployeeTombstone> findDeletedSince(@Param("since") LocalDateTime since, @Param("afterId") long afterId,
+                                             @Param("before") LocalDateTime before, Pageable pageable);
+
+    // the clock the timestamps come from
+    @Query("select local datetime")
+    LocalDateTime currentTimestamp();
+
+    // domain must be escaped with LikePatterns
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.email like concat('%@', :domain) escape '!'")
+    int deleteEmployeesByEmailDomain(@Param("domain") String domain);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.lastName = :lastName")
+    int deleteEmployeesByLastName(@Param("lastName") String lastName);
+
+    // oldDomain must be escaped with LikePatterns, oldDomainLength is the length of the unescaped domain;
+    // the like guarantees the email ends in '@' and the domain, cutting that many characters off keeps
+    // everything up to its last '@' even when the local part is quoted and contains one
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.email = concat(substring(e.email, 1, length(e.email) - :oldDomainLength), :newDomain), " +
+            "e.version = e.version + 1 where e.email like concat('%@', :oldDomain) escape '!'")
+    int updateEmailDomain(@Param("oldDomain") String oldDomain, @Param("oldDomainLength") int oldDomainLength,
+                          @Param("newDomain") String newDomain);
+
+    // prefix searches, both are range scans on idx_employees_last_first in index order
+    // prefixes must be escaped with LikePatterns and end with %
+    @Query("select e from Employee e where e.lastName like :lastNamePrefix escape '!' " +
+            "order by e.lastName, e.firstName, e.id")
+    Slice<Employee> searchByLastNamePrefix(@Param("lastNamePrefix") String lastNamePrefix, Pageable pageable);
+
+    @Query("select e from Employee e where e.lastName = :lastName and e.firstName like :firstNamePrefix escape '!' " +
+            "order by e.firstName, e.id")
+    Slice<Employee> searchByLastNameAndFirstNamePrefix(@Param("lastName") String lastName,
+                                                       @Param("firstNamePrefix") String firstNamePrefix,
+                                                       Pageable pageable);
+
     // define custom query using JPQL with index params
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
+    List<Employee> findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named params
     @Query("select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
-    Employee findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
+    List<Employee> findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
 
     // define custom query using native SQL with index params
     @Query(value = "select * from employees e where e.first_name = ?1 and e.last_name = ?2", nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    List<Employee> findByNativeSQL(String firstName, String lastName);
 
     // define custom query using native SQL with named params
     @Query(value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName", nativeQuery = true)
-    Employee findByNativeSQLNamed(@Param("firstName") String firstName,@Param("lastName") String lastName);
+    List<Employee> findByNativeSQLNamed(@Param("firstName") String firstName,@Param("lastName") String lastName);
 }
@@ -0,0 +1,11 @@
+package com.jp.springboot.repository;
+
+import com.jp.springboot.model.Employee;
+
+import java.util.List;
+
+public interface EmployeeRepositoryCustom {
+
+    // insert in JDBC batches, generated ids are written back to the given employees
+    List<Employee> batchInsert(List<Employee> employees);
+}
@@ -0,0 +1,60 @@
+package com.jp.springboot.repository;
+
+import com.jp.springboot.model.Employee;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Hibernate cannot batch inserts for IDENTITY ids, so bulk inserts go through
+ * plain JDBC batches. With rewriteBatchedStatements=true the MySQL driver sends
+ * each batch as a single multi-row insert and still returns the generated keys.
+ * <p>
+ * Keys are matched to employees by position, which relies on MySQL handing out
+ * the auto-increment values of one multi-row insert in row order. They are only
+ * set once every chunk went through, so a failed batch leaves its employees
+ * without ids and a caller can retry them as they were.
+ */
+@AllArgsConstructor
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "insert into employees (first_name, last_name, email) values (?, ?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Employee> batchInsert(List<Employee> employees) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Employee>>) connection -> {
+            long[] ids = new long[employees.size()];
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+                    List<Employee> batch = employees.subList(from, Math.min(from + BATCH_SIZE, employees.size()));
+                    for (Employee employee : batch) {
+                        statement.setString(1, employee.getFirstName());
+                        statement.setString(2, employee.getLastName());
+                        statement.setString(3, employee.getEmail());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = from; keys.next(); i++) {
+                            ids[i] = keys.getLong(1);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < ids.length; i++) {
+                employees.get(i).setId(ids[i]);
+            }
+            return employees;
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.jp.springboot.repository;
+
+import com.jp.springboot.config.MetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Records how many rows each {@link EmployeeRepository} query returned. Boot's
+ * repository metrics only see the duration, a findAll that gets slower because
+ * the table grew looks the same as one that got slower per row.
+ */
+@Aspect
+@Component
+@AllArgsConstructor
+public class RepositoryResultSizeAspect {
+
+    private MeterRegistry meterRegistry;
+
+    // streams and single results are left out, their size is unknown or always one
+    @AfterReturning(pointcut = "this(com.jp.springboot.repository.EmployeeRepository)", returning = "result")
+    public void recordResultSize(JoinPoint joinPoint, Object result) {
+        int size;
+        if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            size = slice.getNumberOfElements();
+        } else {
+            return;
+        }
+        meterRegistry.summary(MetricsConfig.REPOSITORY_RESULTS, "method", joinPoint.getSignature().getName())
+                .record(size);
+    }
+}
@@ -0,0 +1,204 @@
+package com.jp.springboot.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.MethodUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements slower than a threshold, plus a random sample of the faster
+ * ones, with the calling service method, the row count and the parameter types.
+ * Parameter values are never logged, they hold names and emails.
+ * <p>
+ * Statements below the threshold that are not sampled cost one comparison and
+ * one random number. Selects are logged when their result set is closed, which
+ * is when their row count is known.
+ */
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener, ResultSetProxyLogicFactory {
+
+    private static final String CALLER_PACKAGE = "com.jp.springboot.service.";
+
+    private final long thresholdMillis;
+
+    private final double sampleRate;
+
+    // the result set proxy is created right before afterQuery runs on the same thread
+    private final ThreadLocal<RowCountingResultSet> createdResultSet = new ThreadLocal<>();
+
+    public SlowQueryListener(Duration threshold, double sampleRate) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        RowCountingResultSet logic = new RowCountingResultSet(resultSet);
+        createdResultSet.set(logic);
+        return logic;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RowCountingResultSet resultSet = createdResultSet.get();
+        createdResultSet.set(null);
+        boolean slow = execInfo.getElapsedTime() >= thresholdMillis;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        LoggedQuery query = new LoggedQuery(slow, execInfo, queryInfoList, caller());
+        if (resultSet != null && execInfo.getResult() instanceof ProxyJdbcObject proxy && proxy.getTarget() == resultSet.resultSet) {
+            resultSet.query = query;
+        } else {
+            query.rows = updateCount(execInfo.getResult());
+            query.log();
+        }
+    }
+
+    // the first EmployeeService frame, skipping Spring's proxies
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(CALLER_PACKAGE) && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(CALLER_PACKAGE.length()) + "." + frame.getMethodName())
+                .orElse("-"));
+    }
+
+    // -1 when the driver did not report a count, e.g. for execute()
+    private static long updateCount(Object result) {
+        if (result instanceof Number count) {
+            return count.longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += count;
+            }
+            return rows;
+        }
+        if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += count;
+            }
+            return rows;
+        }
+        return -1;
+    }
+
+    // parameters by index, 10 after 9 rather than after 1; named ones, set on callable statements, come last by name
+    private static final Comparator<ParameterSetOperation> PARAMETER_ORDER =
+            Comparator.comparing((ParameterSetOperation operation) -> !(operation.getArgs()[0] instanceof Number))
+                    .thenComparingInt(operation -> operation.getArgs()[0] instanceof Number index ? index.intValue() : 0)
+                    .thenComparing(operation -> String.valueOf(operation.getArgs()[0]));
+
+    // (Long, String, null) for the first parameter set of the statement
+    static String parameterShape(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+            return "()";
+        }
+        return queryInfoList.get(0).getParametersList().get(0).stream()
+                .sorted(PARAMETER_ORDER)
+                .map(SlowQueryListener::parameterType)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+        String setter = operation.getMethod().getName();
+        if ("setObject".equals(setter)) {
+            Object value = operation.getArgs()[1];
+            return value == null ? "null" : value.getClass().getSimpleName();
+        }
+        return setter.startsWith("set") ? setter.substring(3) : setter;
+    }
+
+    /**
+     * Passes every call straight through, unlike datasource-proxy's own result
+     * set logic it creates nothing per call. Rows are only counted once the
+     * select turned out to be logged.
+     */
+    static class RowCountingResultSet implements ResultSetProxyLogic {
+
+        final ResultSet resultSet;
+
+        LoggedQuery query;
+
+        RowCountingResultSet(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public Object invoke(Method method, Object[] args) throws Throwable {
+            if (query == null) {
+                return "getTarget".equals(method.getName()) ? resultSet : MethodUtils.proceedExecution(method, resultSet, args);
+            }
+            Object result = MethodUtils.proceedExecution(method, resultSet, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        query.rows++;
+                    }
+                }
+                case "close" -> {
+                    query.log();
+                    query = null;
+                }
+                default -> {
+                }
+            }
+            return result;
+        }
+    }
+
+    static class LoggedQuery {
+
+        final boolean slow;
+
+        final long elapsedMillis;
+
+        final String sql;
+
+        final String parameters;
+
+        final int batchSize;
+
+        final String caller;
+
+        long rows;
+
+        LoggedQuery(boolean slow, ExecutionInfo execInfo, List<QueryInfo> queryInfoList, String caller) {
+            this.slow = slow;
+            this.elapsedMillis = execInfo.getElapsedTime();
+            this.sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            this.parameters = parameterShape(queryInfoList);
+            this.batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 0;
+            this.caller = caller;
+        }
+
+        void log() {
+            log.info("{} query {} ms, {} rows{}, {}: {} {}", slow ? "slow" : "sampled", elapsedMillis,
+                    rows < 0 ? "?" : rows, batchSize > 0 ? ", batch of " + batchSize : "", caller, sql, parameters);
+        }
+    }
+}
@@ -0,0 +1,625 @@
+package com.jp.springboot.search;
+
+import com.jp.springboot.model.Employee;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over first name, last name and email for the
+ * search-as-you-type box. Every term of a query must occur as a substring of
+ * some field (terms shorter than three characters must be a field prefix).
+ * Prefix matches rank first and come straight from per-field sorted slots, so
+ * the common keystroke case never walks a posting list; other substrings are
+ * found through the trigram posting lists. When that gives fewer than the
+ * requested hits, employees sharing at least half of the query trigrams are
+ * added as fuzzy matches ranked below them.
+ * <p>
+ * Updates replace or tombstone the employee's slot; the index compacts itself
+ * once tombstones outnumber live entries. The database stays the source of
+ * truth, see {@link EmployeeSearchIndexUpdater} for how the index follows it.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    // pads field starts so short queries match as prefixes
+    private static final char START = '\u0002';
+    private static final int FIELDS = 3;
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int EMAIL = 2;
+    private static final float MATCH_SCORE = 2;
+    private static final float NAME_BONUS = 0.25f;
+    private static final float PREFIX_BONUS = 0.5f;
+    private static final float WHOLE_VALUE_BONUS = 1.5f;
+    private static final float PREFIX_SCORE = MATCH_SCORE + PREFIX_BONUS;
+    private static final float BEST_INFIX_SCORE = MATCH_SCORE + NAME_BONUS;
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(Hit::key, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(Hit::slot);
+    private static final Comparator<Hit> WORST_FIRST = BEST_FIRST.reversed();
+    private static final int COMPACT_MIN_TOMBSTONES = 10_000;
+    private static final int MERGE_THRESHOLD = 4096;
+    private static final int FUZZY_MIN_GRAMS = 3;
+    // grams this common say little about a typo, fuzzy matching skips them
+    private static final int FUZZY_MAX_POSTINGS = 20_000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // changes applied while a rebuild is running, replayed onto the rebuilt segment
+    private List<Consumer<Segment>> pendingChanges;
+
+    public void index(Employee employee) {
+        apply(segment -> segment.put(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+    }
+
+    // null fields keep their indexed value
+    public void patch(long id, String firstName, String lastName, String email) {
+        apply(segment -> segment.patch(id, firstName, lastName, email));
+    }
+
+    public void remove(long id) {
+        apply(segment -> segment.remove(id));
+    }
+
+    /**
+     * Replaces the index with the employees fed by {@code source}. The old
+     * index keeps serving searches meanwhile, changes made during the rebuild
+     * are replayed onto the new one before it is swapped in.
+     */
+    public void rebuild(Consumer<Consumer<Employee>> source) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                throw new IllegalStateException("Search index rebuild already running");
+            }
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        try {
+            source.accept(employee -> rebuilt.put(employee.getId(), employee.getFirstName(),
+                    employee.getLastName(), employee.getEmail()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pendingChanges = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            rebuilt.seal();
+            segment = rebuilt;
+        } finally {
+            pendingChanges = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Employee> search(String query, int limit) {
+        String[] terms = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (limit <= 0 || terms[0].isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long postingsSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return segment.postings.values().stream().mapToLong(PostingList::sizeInBytes).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (segment.isSparse()) {
+                segment = segment.compact();
+            } else {
+                segment.mergeUnsorted();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long[] queryGrams(String term) {
+        String padded = term.length() < 3 ? "" + START + START + term : term;
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(padded, i);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static long gram(String value, int from) {
+        return ((long) value.charAt(from) << 32) | ((long) value.charAt(from + 1) << 16) | value.charAt(from + 2);
+    }
+
+    private static int indexOfIgnoreCase(String value, String term) {
+        for (int i = 0; i + term.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, term, 0, term.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Hit(int slot, long id, float score, String key) {
+    }
+
+    private static final class Segment {
+
+        private long[] ids = new long[1024];
+        // first name, last name and email per slot
+        private String[][] values = new String[FIELDS][1024];
+        private int slotCount;
+        private final BitSet live = new BitSet();
+        private final LongIntMap slots = new LongIntMap();
+        private final Map<Long, PostingList> postings = new HashMap<>();
+        // live slots per field ordered by value, slots from sortedUpTo on are not sorted in yet
+        private final int[][] sorted = {new int[0], new int[0], new int[0]};
+        private int sortedUpTo;
+
+        void put(long id, String firstName, String lastName, String email) {
+            remove(id);
+            if (slotCount == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                for (int field = 0; field < FIELDS; field++) {
+                    values[field] = Arrays.copyOf(values[field], capacity);
+                }
+            }
+            int slot = slotCount++;
+            ids[slot] = id;
+            values[FIRST_NAME][slot] = firstName;
+            values[LAST_NAME][slot] = lastName;
+            values[EMAIL][slot] = email;
+            live.set(slot);
+            slots.put(id, slot);
+            addGrams(slot, firstName);
+            addGrams(slot, lastName);
+            addGrams(slot, email);
+        }
+
+        void patch(long id, String firstName, String lastName, String email) {
+            int slot = slots.get(id);
+            if (slot >= 0) {
+                put(id, firstName != null ? firstName : values[FIRST_NAME][slot],
+                        lastName != null ? lastName : values[LAST_NAME][slot],
+                        email != null ? email : values[EMAIL][slot]);
+            }
+        }
+
+        // the slot stays in the posting lists and sorted fields as a tombstone until the next compaction
+        void remove(long id) {
+            int slot = slots.remove(id);
+            if (slot >= 0) {
+                live.clear(slot);
+            }
+        }
+
+        boolean isSparse() {
+            int tombstones = slotCount - slots.size();
+            return tombstones > COMPACT_MIN_TOMBSTONES && tombstones > slots.size();
+        }
+
+        Segment compact() {
+            Segment compacted = new Segment();
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                compacted.put(ids[slot], values[FIRST_NAME][slot], values[LAST_NAME][slot], values[EMAIL][slot]);
+            }
+            compacted.seal();
+            return compacted;
+        }
+
+        // sorts every field and trims the posting lists, for segments built in one go
+        void seal() {
+            for (int field = 0; field < FIELDS; field++) {
+                sorted[field] = sortedSlots(field, 0);
+            }
+            sortedUpTo = slotCount;
+            postings.values().forEach(PostingList::trimToSize);
+        }
+
+        // merges the unsorted slots into the sorted fields once scanning them gets noticeable
+        void mergeUnsorted() {
+            if (slotCount - sortedUpTo < MERGE_THRESHOLD) {
+                return;
+            }
+            for (int field = 0; field < FIELDS; field++) {
+                Comparator<Integer> order = order(field);
+                int[] current = sorted[field];
+                int[] added = sortedSlots(field, sortedUpTo);
+                int[] merged = new int[current.length + added.length];
+                int size = 0;
+                int i = 0;
+                int j = 0;
+                while (i < current.length || j < added.length) {
+                    if (i < current.length && !live.get(current[i])) {
+                        i++;
+                    } else if (j == added.length || (i < current.length && order.compare(current[i], added[j]) <= 0)) {
+                        merged[size++] = current[i++];
+                    } else {
+                        merged[size++] = added[j++];
+                    }
+                }
+                sorted[field] = Arrays.copyOf(merged, size);
+            }
+            sortedUpTo = slotCount;
+        }
+
+        private int[] sortedSlots(int field, int from) {
+            return live.stream().filter(slot -> slot >= from).boxed()
+                    .sorted(order(field)).mapToInt(Integer::intValue).toArray();
+        }
+
+        private Comparator<Integer> order(int field) {
+            return (a, b) -> {
+                int result = String.CASE_INSENSITIVE_ORDER.compare(value(field, a), value(field, b));
+                return result != 0 ? result : Integer.compare(a, b);
+            };
+        }
+
+        private String value(int field, int slot) {
+            String value = values[field][slot];
+            return value == null ? "" : value;
+        }
+
+        private void addGrams(int slot, String value) {
+            if (value == null) {
+                return;
+            }
+            String padded = "" + START + START + value.toLowerCase(Locale.ROOT);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                postings.computeIfAbsent(gram(padded, i), key -> new PostingList()).add(slot);
+            }
+        }
+
+        List<Employee> search(String[] terms, int limit) {
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            boolean prefixesFound = false;
+            if (terms.length == 1) {
+                top.addAll(findPrefixes(terms[0], limit));
+                prefixesFound = true;
+            }
+            // a single short term can only match as a prefix
+            if (top.size() < limit && (terms.length > 1 || terms[0].length() >= 3)) {
+                findSubstrings(terms, limit, top, prefixesFound);
+                if (top.size() < limit) {
+                    findFuzzy(terms, limit, top);
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(BEST_FIRST);
+            List<Employee> employees = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                employees.add(Employee.builder()
+                        .id(hit.id())
+                        .firstName(values[FIRST_NAME][hit.slot()])
+                        .lastName(values[LAST_NAME][hit.slot()])
+                        .email(values[EMAIL][hit.slot()])
+                        .build());
+            }
+            return employees;
+        }
+
+        // the best prefix matches of a field are the first live slots of its sorted range
+        private List<Hit> findPrefixes(String term, int limit) {
+            List<Hit> hits = new ArrayList<>();
+            for (int field = 0; field < FIELDS; field++) {
+                int[] order = sorted[field];
+                int found = 0;
+                for (int i = lowerBound(field, term); i < order.length && found < limit; i++) {
+                    String value = value(field, order[i]);
+                    if (!value.regionMatches(true, 0, term, 0, term.length())) {
+                        break;
+                    }
+                    if (live.get(order[i])) {
+                        hits.add(new Hit(order[i], ids[order[i]], fieldScore(field, value, term), value));
+                        found++;
+                    }
+                }
+                for (int slot = sortedUpTo; slot < slotCount; slot++) {
+                    String value = value(field, slot);
+                    if (live.get(slot) && value.regionMatches(true, 0, term, 0, term.length())) {
+                        hits.add(new Hit(slot, ids[slot], fieldScore(field, value, term), value));
+                    }
+                }
+            }
+
+            hits.sort(BEST_FIRST);
+            Set<Integer> seen = new HashSet<>();
+            List<Hit> best = new ArrayList<>(limit);
+            for (Hit hit : hits) {
+                if (best.size() < limit && seen.add(hit.slot())) {
+                    best.add(hit);
+                }
+            }
+            return best;
+        }
+
+        private int lowerBound(int field, String term) {
+            int[] order = sorted[field];
+            int low = 0;
+            int high = order.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (String.CASE_INSENSITIVE_ORDER.compare(value(field, order[middle]), term) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // leapfrogs over the posting lists of the longest term, rarest first, then verifies every term
+        private void findSubstrings(String[] terms, int limit, PriorityQueue<Hit> top, boolean prefixesFound) {
+            String longest = terms[0];
+            for (String term : terms) {
+                if (term.length() > longest.length()) {
+                    longest = term;
+                }
+            }
+            long[] grams = queryGrams(longest);
+            PostingList[] lists = new PostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                cursors[i] = lists[i].cursor();
+            }
+
+            if (!cursors[0].next()) {
+                return;
+            }
+            int slot = cursors[0].slot();
+            int agreeing = 1;
+            for (int i = 1 % cursors.length; ; i = (i + 1) % cursors.length) {
+                if (agreeing == cursors.length) {
+                    if (live.get(slot)) {
+                        Hit hit = substringHit(slot, terms);
+                        // every prefix match is already in top when the prefix search came up short
+                        if (hit != null && !(prefixesFound && hit.score() >= PREFIX_SCORE)) {
+                            offer(top, hit, limit);
+                            // later slots only tie with a full top of best infix matches
+                            if (prefixesFound && top.size() == limit && top.peek().score() >= BEST_INFIX_SCORE) {
+                                return;
+                            }
+                        }
+                    }
+                    if (!cursors[i].advanceTo(slot + 1)) {
+                        return;
+                    }
+                    slot = cursors[i].slot();
+                    agreeing = 1;
+                } else {
+                    if (!cursors[i].advanceTo(slot)) {
+                        return;
+                    }
+                    if (cursors[i].slot() == slot) {
+                        agreeing++;
+                    } else {
+                        slot = cursors[i].slot();
+                        agreeing = 1;
+                    }
+                }
+            }
+        }
+
+        // a k-way merge of the posting lists counts the grams each employee shares with the query
+        private void findFuzzy(String[] terms, int limit, PriorityQueue<Hit> top) {
+            long[] grams = Arrays.stream(terms).map(EmployeeSearchIndex::queryGrams)
+                    .flatMapToLong(Arrays::stream).distinct().toArray();
+            if (grams.length < FUZZY_MIN_GRAMS) {
+                return;
+            }
+            int minShared = (grams.length + 1) / 2;
+            List<PostingList.Cursor> cursors = new ArrayList<>();
+            for (long gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list != null && list.size() <= FUZZY_MAX_POSTINGS) {
+                    PostingList.Cursor cursor = list.cursor();
+                    if (cursor.next()) {
+                        cursors.add(cursor);
+                    }
+                }
+            }
+
+            while (cursors.size() >= minShared) {
+                int slot = Integer.MAX_VALUE;
+                for (PostingList.Cursor cursor : cursors) {
+                    slot = Math.min(slot, cursor.slot());
+                }
+                int shared = 0;
+                for (int i = cursors.size() - 1; i >= 0; i--) {
+                    PostingList.Cursor cursor = cursors.get(i);
+                    if (cursor.slot() == slot) {
+                        shared++;
+                        if (!cursor.next()) {
+                            cursors.remove(i);
+                        }
+                    }
+                }
+                if (shared >= minShared && live.get(slot) && !contains(top, slot)) {
+                    offer(top, new Hit(slot, ids[slot], (float) shared / grams.length, ""), limit);
+                }
+            }
+        }
+
+        // null unless every term occurs in some field, equal scores keep the slot order
+        private Hit substringHit(int slot, String[] terms) {
+            float score = 0;
+            for (String term : terms) {
+                float termScore = -1;
+                for (int field = 0; field < FIELDS; field++) {
+                    termScore = Math.max(termScore, fieldScore(field, value(field, slot), term));
+                }
+                if (termScore < 0) {
+                    return null;
+                }
+                score += termScore;
+            }
+            return new Hit(slot, ids[slot], score, "");
+        }
+
+        // substring matches score from 2, prefixes and whole values more, fuzzy matches at most 1
+        private static float fieldScore(int field, String value, String term) {
+            int position = term.length() < 3
+                    ? (value.regionMatches(true, 0, term, 0, term.length()) ? 0 : -1)
+                    : indexOfIgnoreCase(value, term);
+            if (position < 0) {
+                return -1;
+            }
+            float score = MATCH_SCORE + (field == EMAIL ? 0 : NAME_BONUS);
+            if (position == 0) {
+                score += value.length() == term.length() ? WHOLE_VALUE_BONUS : PREFIX_BONUS;
+            }
+            return score;
+        }
+
+        private static void offer(PriorityQueue<Hit> top, Hit hit, int limit) {
+            top.add(hit);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        private static boolean contains(PriorityQueue<Hit> top, int slot) {
+            for (Hit hit : top) {
+                if (hit.slot() == slot) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // open addressing id -> slot map, a HashMap<Long, Integer> costs about four times the memory
+    private static final class LongIntMap {
+
+        private long[] keys = new long[16];
+        // slot + 1, zero marks a free bucket
+        private int[] values = new int[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(long key) {
+            for (int i = bucket(key); values[i] != 0; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) {
+                    return values[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int i = bucket(key);
+            while (values[i] != 0) {
+                if (keys[i] == key) {
+                    values[i] = value + 1;
+                    return;
+                }
+                i = (i + 1) & (keys.length - 1);
+            }
+            keys[i] = key;
+            values[i] = value + 1;
+            size++;
+        }
+
+        int remove(long key) {
+            for (int i = bucket(key); values[i] != 0; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) {
+                    int value = values[i] - 1;
+                    closeGap(i);
+                    size--;
+                    return value;
+                }
+            }
+            return -1;
+        }
+
+        // backward shift deletion keeps every probe chain unbroken without tombstones
+        private void closeGap(int gap) {
+            int mask = keys.length - 1;
+            for (int i = (gap + 1) & mask; values[i] != 0; i = (i + 1) & mask) {
+                int home = bucket(keys[i]);
+                boolean reachable = gap < i ? home > gap && home <= i : home > gap || home <= i;
+                if (!reachable) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    gap = i;
+                }
+            }
+            values[gap] = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) {
+                    put(oldKeys[i], oldValues[i] - 1);
+                }
+            }
+        }
+
+        private int bucket(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (keys.length - 1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.jp.springboot.search;
+
+import com.jp.springboot.datasource.ReadYourWrites;
+import com.jp.springboot.event.EmployeeChangedEvent;
+import com.jp.springboot.service.EmployeeService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the {@link EmployeeSearchIndex} in step with the employees table:
+ * loads it once the application is ready, applies single-employee changes
+ * after their transaction commits and rebuilds it after bulk statements.
+ * Loads run on a background thread so startup and bulk requests never wait
+ * for a full table scan, and read from the primary.
+ */
+@Slf4j
+@Component
+public class EmployeeSearchIndexUpdater {
+
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeService employeeService;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // bulk changes arriving while a rebuild is queued share that rebuild
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    public EmployeeSearchIndexUpdater(EmployeeSearchIndex searchIndex, EmployeeService employeeService) {
+        this.searchIndex = searchIndex;
+        this.employeeService = employeeService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> searchIndex.index(event.getEmployee());
+            case PATCHED -> searchIndex.patch(event.getEmployeeId(), event.getEmployee().getFirstName(),
+                    event.getEmployee().getLastName(), event.getEmployee().getEmail());
+            case DELETED -> searchIndex.remove(event.getEmployeeId());
+            case BULK_CHANGED -> scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildQueued.set(false);
+            // the index serves every client until the next rebuild, a lagging replica would leave changes out of it
+            try (ReadYourWrites.Binding binding = ReadYourWrites.bind(ReadYourWrites.primaryOnly())) {
+                searchIndex.rebuild(employeeService::exportEmployees);
+                log.info("Employee search index loaded with {} employees", searchIndex.size());
+            } catch (RuntimeException e) {
+                log.warn("Employee search index rebuild failed, keeping the previous index", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.jp.springboot.search;
+
+import java.util.Arrays;
+
+/**
+ * Ascending list of document slots stored as varint-encoded deltas, which
+ * keeps the typical posting at one or two bytes. Every {@value #SKIP_INTERVAL}
+ * postings a skip entry records where decoding can resume, so intersections
+ * jump over long lists instead of decoding them. Slots must be appended in
+ * increasing order; appending the last slot again is ignored.
+ */
+final class PostingList {
+
+    private static final int SKIP_INTERVAL = 128;
+
+    private byte[] data = new byte[4];
+    private int length;
+    private int size;
+    private int last = -1;
+    // slot decoded before the skip entry's posting and that posting's byte offset
+    private int[] skipSlots = new int[0];
+    private int[] skipOffsets = new int[0];
+
+    void add(int slot) {
+        if (slot == last) {
+            return;
+        }
+        if (slot < last) {
+            throw new IllegalArgumentException("slots must be added in ascending order");
+        }
+        if (size > 0 && size % SKIP_INTERVAL == 0) {
+            int skips = size / SKIP_INTERVAL;
+            skipSlots = Arrays.copyOf(skipSlots, skips);
+            skipOffsets = Arrays.copyOf(skipOffsets, skips);
+            skipSlots[skips - 1] = last;
+            skipOffsets[skips - 1] = length;
+        }
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(length + 5, data.length + (data.length >> 1)));
+        }
+        int delta = slot - last;
+        while ((delta & ~0x7F) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = slot;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int sizeInBytes() {
+        return data.length + 4 * (skipSlots.length + skipOffsets.length);
+    }
+
+    void trimToSize() {
+        if (data.length != length) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    final class Cursor {
+
+        private int position;
+        private int slot = -1;
+        // first skip entry that may still lie ahead of position
+        private int nextSkip;
+
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            slot += delta;
+            return true;
+        }
+
+        // moves to the first slot >= target, false when the list runs out
+        boolean advanceTo(int target) {
+            if (slot >= target) {
+                return true;
+            }
+            // short hops decode linearly, only targets past the next skip entry search the skip table
+            if (nextSkip < skipSlots.length && skipSlots[nextSkip] < target) {
+                int skip = Arrays.binarySearch(skipSlots, nextSkip, skipSlots.length, target);
+                // the last skip entry whose preceding slot is below target
+                skip = (skip >= 0 ? skip : -skip - 1) - 1;
+                if (skipOffsets[skip] > position) {
+                    position = skipOffsets[skip];
+                    slot = skipSlots[skip];
+                }
+                nextSkip = skip + 1;
+            }
+            while (slot < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int slot() {
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.model.Employee;
+import org.springframework.data.domain.Slice;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link EmployeeService}. Calls run on a bounded executor;
+ * when it is saturated, or a call takes longer than the configured timeout,
+ * the returned future fails with a ServiceUnavailableException.
+ */
+public interface AsyncEmployeeService {
+
+    CompletableFuture<Employee> saveEmployee(Employee employee);
+
+    CompletableFuture<Slice<Employee>> getEmployees(long afterId, int pageSize);
+
+    CompletableFuture<Optional<Employee>> getEmployeeById(long id);
+
+    CompletableFuture<Employee> updateEmployee(Employee updateEmployee);
+
+    CompletableFuture<Boolean> patchEmployee(long id, Employee changes);
+
+    CompletableFuture<Boolean> deleteEmployee(long id);
+}
@@ -0,0 +1,89 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.config.AsyncConfig;
+import com.jp.springboot.exception.ServiceUnavailableException;
+import com.jp.springboot.model.Employee;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class AsyncEmployeeServiceImpl implements AsyncEmployeeService{
+
+    private final EmployeeService employeeService;
+
+    private final Executor executor;
+
+    private final Duration timeout;
+
+    public AsyncEmployeeServiceImpl(EmployeeService employeeService,
+                                    @Qualifier(AsyncConfig.EMPLOYEE_SERVICE_EXECUTOR) Executor executor,
+                                    @Value("${employee.async.timeout:5s}") Duration timeout) {
+        this.employeeService = employeeService;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public CompletableFuture<Employee> saveEmployee(Employee employee) {
+        return submit(() -> employeeService.saveEmployee(employee));
+    }
+
+    @Override
+    public CompletableFuture<Slice<Employee>> getEmployees(long afterId, int pageSize) {
+        return submit(() -> employeeService.getEmployees(afterId, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Employee>> getEmployeeById(long id) {
+        return submit(() -> employeeService.getEmployeeById(id));
+    }
+
+    @Override
+    public CompletableFuture<Employee> updateEmployee(Employee updateEmployee) {
+        return submit(() -> employeeService.updateEmployee(updateEmployee));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> patchEmployee(long id, Employee changes) {
+        return submit(() -> employeeService.patchEmployee(id, null, changes));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteEmployee(long id) {
+        return submit(() -> employeeService.deleteEmployee(id));
+    }
+
+    // the call itself keeps running after a timeout, only the caller stops waiting for it
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Employee service is busy, try again later", e));
+        }
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((value, failure) -> {
+                    if (failure == null) {
+                        return value;
+                    }
+                    if (failure instanceof TimeoutException) {
+                        throw new ServiceUnavailableException(
+                                "Employee service did not answer within " + timeout.toMillis() + " ms", failure);
+                    }
+                    throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+                });
+    }
+}
@@ -0,0 +1,12 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.dto.EmployeeDelta;
+import com.jp.springboot.util.DeltaToken;
+
+public interface EmployeeDeltaService {
+
+    // DeltaTokenExpiredException once deletes after the token may have been purged
+    EmployeeDelta getChangesSince(DeltaToken since, int pageSize);
+
+    int purgeTombstones();
+}
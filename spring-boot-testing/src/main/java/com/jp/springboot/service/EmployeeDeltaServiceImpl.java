@@ -0,0 +1,132 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.config.MetricsConfig;
+import com.jp.springboot.dto.EmployeeDelta;
+import com.jp.springboot.exception.DeltaTokenExpiredException;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.model.EmployeeTombstone;
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.util.DeltaToken;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.jp.springboot.service.EmployeeService.MAX_PAGE_SIZE;
+
+/**
+ * Changes since a {@link DeltaToken}: employees by modification time and
+ * tombstones by deletion time, merged in (time, id) order. Each call reads
+ * at most one page from each, so its cost follows the number of changes, not
+ * the size of the table. Changes younger than the settle window are held
+ * back, a transaction that wrote an earlier timestamp may still be committing
+ * or replicating, and a token must never move past a change not yet visible.
+ * A token is only refused once a tombstone newer than it has been purged, not
+ * because of its age, and a call that sees everything moves the token up to
+ * the settle window, so clients of a quiet table keep a recent one. During a
+ * full sync the keyset position is as old as the oldest employee, the tokens
+ * are checked against the start of the sync instead: only deletes after that
+ * concern employees the client may already have.
+ */
+@Slf4j
+@Service
+// latency histogram for every public method, tagged by method name
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class EmployeeDeltaServiceImpl implements EmployeeDeltaService {
+
+    private final EmployeeRepository employeeRepository;
+
+    private final Duration settleWindow;
+
+    private final Duration tombstoneRetention;
+
+    public EmployeeDeltaServiceImpl(EmployeeRepository employeeRepository,
+                                    @Value("${employee.delta.settle-window:5s}") Duration settleWindow,
+                                    @Value("${employee.delta.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.employeeRepository = employeeRepository;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeDelta getChangesSince(DeltaToken since, int pageSize) {
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        // a client without a token loads all employees and never needs a purged tombstone
+        if (!since.equals(DeltaToken.START) && isPurged(since)) {
+            throw new DeltaTokenExpiredException("Deletes after the delta token have been purged, sync again without a token");
+        }
+        LocalDateTime now = employeeRepository.currentTimestamp();
+
+        // one more than a page from each, whatever is left over after the merge means there is more
+        LocalDateTime before = now.minus(settleWindow);
+        // employees changed from here on are still to come, anything older is already in this sync
+        LocalDateTime fullSyncFrom = since.equals(DeltaToken.START) ? before : since.fullSyncFrom();
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        List<Employee> employees = employeeRepository.findChangedSince(since.timestamp(), since.id(), before, pageRequest);
+        List<EmployeeTombstone> tombstones = employeeRepository.findDeletedSince(since.timestamp(), since.id(), before, pageRequest);
+
+        List<Employee> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        DeltaToken next = since;
+        int e = 0;
+        int t = 0;
+        while (e + t < size && (e < employees.size() || t < tombstones.size())) {
+            if (t == tombstones.size() || (e < employees.size() && isBefore(employees.get(e), tombstones.get(t)))) {
+                Employee employee = employees.get(e++);
+                changed.add(employee);
+                next = new DeltaToken(employee.getUpdatedAt(), employee.getId(), fullSyncFrom);
+            } else {
+                EmployeeTombstone tombstone = tombstones.get(t++);
+                deleted.add(tombstone.getEmployeeId());
+                next = new DeltaToken(tombstone.getDeletedAt(), tombstone.getEmployeeId(), fullSyncFrom);
+            }
+        }
+        boolean hasMore = e < employees.size() || t < tombstones.size();
+        if (!hasMore) {
+            // everything before the settle window has been seen, the next call starts there, a full sync is done
+            next = next.timestamp().isBefore(before) ? new DeltaToken(before, 0) : new DeltaToken(next.timestamp(), next.id());
+        }
+        return new EmployeeDelta(changed, deleted, next.encode(), hasMore);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${employee.delta.tombstone-purge-interval:PT1H}",
+            initialDelayString = "${employee.delta.tombstone-purge-interval:PT1H}")
+    public int purgeTombstones() {
+        LocalDateTime before = employeeRepository.currentTimestamp().minus(tombstoneRetention);
+        LocalDateTime lastPurged = employeeRepository.findLastDeletedBefore(before);
+        if (lastPurged == null) {
+            return 0;
+        }
+        // recorded in the same transaction, tokens up to it are refused from the commit on
+        employeeRepository.advanceTombstonesPurgedThrough(lastPurged);
+        int purged = employeeRepository.deleteTombstonesBefore(before);
+        if (purged > 0) {
+            log.info("Purged {} employee tombstones older than {}", purged, tombstoneRetention);
+        }
+        return purged;
+    }
+
+    // a purged tombstone at the token's own time may have an id after it, so that time counts as purged too
+    private boolean isPurged(DeltaToken since) {
+        LocalDateTime purgedThrough = employeeRepository.findTombstonesPurgedThrough();
+        LocalDateTime needsDeletesAfter = since.fullSyncFrom() != null ? since.fullSyncFrom() : since.timestamp();
+        return purgedThrough != null && !needsDeletesAfter.isAfter(purgedThrough);
+    }
+
+    // an employee and a tombstone never share an id, equal times are ordered by id
+    private static boolean isBefore(Employee employee, EmployeeTombstone tombstone) {
+        int byTime = employee.getUpdatedAt().compareTo(tombstone.getDeletedAt());
+        return byTime != 0 ? byTime < 0 : employee.getId() < tombstone.getEmployeeId();
+    }
+}
@@ -0,0 +1,173 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.datasource.ReadYourWrites;
+import com.jp.springboot.dto.EmployeeBatchResult;
+import com.jp.springboot.exception.ResourceNotFoundExceptiion;
+import com.jp.springboot.exception.ServiceUnavailableException;
+import com.jp.springboot.model.Employee;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for single creates: employees saved by concurrent callers are
+ * collected for up to max-delay or max-batch-size and written by one thread
+ * through {@link EmployeeService#saveEmployees}, one transaction and one
+ * batched insert for all of them. Every caller blocks until that transaction
+ * has committed and then gets its own employee or error, the same ones
+ * {@link EmployeeService#saveEmployee} would give. Callers wait at most
+ * wait-timeout, and are failed right away once the writer thread stops.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.group-commit.enabled", havingValue = "true")
+public class EmployeeGroupCommitter implements DisposableBean {
+
+    private final EmployeeService employeeService;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final Duration waitTimeout;
+
+    private final BlockingQueue<PendingCreate> queue;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public EmployeeGroupCommitter(EmployeeService employeeService,
+                                  @Value("${employee.group-commit.max-batch-size:200}") int maxBatchSize,
+                                  @Value("${employee.group-commit.max-delay:2ms}") Duration maxDelay,
+                                  @Value("${employee.group-commit.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${employee.group-commit.wait-timeout:10s}") Duration waitTimeout) {
+        this.employeeService = employeeService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.waitTimeout = waitTimeout;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeBatches, "employee-group-commit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public Employee saveEmployee(Employee employee) {
+        PendingCreate pending = new PendingCreate(employee, ReadYourWrites.current());
+        if (!running || !queue.offer(pending)) {
+            throw new ServiceUnavailableException("Too many employees waiting to be saved", null);
+        }
+        try {
+            return pending.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (TimeoutException e) {
+            // like the interrupt, the employee may still be written
+            throw new ServiceUnavailableException("Employee was not saved within " + waitTimeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            // the employee may still be written, the caller just stops waiting for it
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the employee to be saved", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // offered after the writer drained the queue on its way out
+        failUnwritten(new ArrayList<>());
+    }
+
+    private void writeBatches() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                try {
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    // shutting down, whatever was collected is still written
+                    running = false;
+                }
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            // shut down or died on an Error, nobody is left to write what is waiting
+            running = false;
+            failUnwritten(batch);
+        }
+    }
+
+    // callers already answered keep their answer, completing a done future again does nothing
+    private void failUnwritten(List<PendingCreate> unwritten) {
+        queue.drainTo(unwritten);
+        unwritten.forEach(pending -> pending.result().completeExceptionally(
+                new ServiceUnavailableException("Shutting down, employee was not saved", null)));
+    }
+
+    // blocks for the first employee, then takes whatever arrives within max-delay of it
+    private void collect(List<PendingCreate> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        // reads after the commit go to the primary for every caller in the batch, not only for this thread
+        ReadYourWrites clients = new ReadYourWrites(0, until -> batch.forEach(pending -> pending.client().written(until)));
+        List<EmployeeBatchResult> results;
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(clients)) {
+            results = employeeService.saveEmployees(batch.stream().map(PendingCreate::employee).toList());
+        } catch (RuntimeException e) {
+            // e.g. an email taken by a concurrent create after the duplicate check, one by one only its caller fails
+            batch.forEach(this::writeAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            EmployeeBatchResult result = results.get(i);
+            CompletableFuture<Employee> pending = batch.get(i).result();
+            switch (result.getStatus()) {
+                case CREATED -> pending.complete(result.getEmployee());
+                case DUPLICATE_EMAIL -> pending.completeExceptionally(new ResourceNotFoundExceptiion(result.getMessage()));
+                case INVALID -> pending.completeExceptionally(new DataIntegrityViolationException(result.getMessage()));
+            }
+        }
+    }
+
+    private void writeAlone(PendingCreate pending) {
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(pending.client())) {
+            pending.result().complete(employeeService.saveEmployee(pending.employee()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private record PendingCreate(Employee employee, ReadYourWrites client, CompletableFuture<Employee> result) {
+
+        PendingCreate(Employee employee, ReadYourWrites client) {
+            this(employee, client, new CompletableFuture<>());
+        }
+    }
+}
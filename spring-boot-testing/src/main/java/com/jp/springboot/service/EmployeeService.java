@@ -1,20 +1,51 @@
 package com.jp.springboot.service;
 
+import com.jp.springboot.dto.EmployeeBatchResult;
 import com.jp.springboot.model.Employee;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 
 public interface EmployeeService {
+    int DEFAULT_PAGE_SIZE = 20;
+
+    int MAX_PAGE_SIZE = 100;
+
+    int DEFAULT_SEARCH_LIMIT = 10;
+
     Employee saveEmployee(Employee employee);
 
+    List<EmployeeBatchResult> saveEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    Slice<Employee> getEmployees(long afterId, int pageSize);
+
+    void exportEmployees(Consumer<Employee> consumer);
+
+    Slice<Employee> searchEmployeesByName(String name, int page, int pageSize);
+
+    List<Employee> searchEmployees(String query, int limit);
+
     Optional<Employee> getEmployeeById(long id);
 
     Employee updateEmployee(Employee updateEmployee);
 
-    void deleteEmployee(long id);
+    // a non-null expectedVersion fails with an OptimisticLockingFailureException if the employee has moved on
+    boolean patchEmployee(long id, Long expectedVersion, Employee changes);
+
+    boolean deleteEmployee(long id);
+
+    int deleteEmployees(Collection<Long> ids);
+
+    int deleteEmployeesByEmailDomain(String domain);
+
+    int deleteEmployeesByLastName(String lastName);
+
+    int updateEmailDomain(String oldDomain, String newDomain);
 }
@@ -1,34 +1,158 @@
 package com.jp.springboot.service;
 
+import com.jp.springboot.config.CacheConfig;
+import com.jp.springboot.config.MetricsConfig;
+import com.jp.springboot.datasource.ReadYourWrites;
+import com.jp.springboot.dto.EmployeeBatchResult;
+import com.jp.springboot.event.EmployeeChangedEvent;
 import com.jp.springboot.exception.ResourceNotFoundExceptiion;
 import com.jp.springboot.model.Employee;
 import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.search.EmployeeSearchIndex;
+import com.jp.springboot.util.LikePatterns;
+import com.jp.springboot.util.SingleFlight;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
+// latency histogram for every public method, tagged by method name
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class EmployeeServiceImpl implements EmployeeService{
 
+    // keeps IN lists well below driver/optimizer limits
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+
+    // longer than a lookup takes even while waiting for a pooled connection
+    private static final Duration LOOKUP_WAIT_TIMEOUT = Duration.ofSeconds(10);
 
     private EmployeeRepository employeeRepository;
 
+    private EntityManager entityManager;
+
+    private KnownEmailFilter knownEmailFilter;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheManager cacheManager;
+
+    // concurrent lookups of the same employee share one query
+    private final SingleFlight<Long, Optional<Employee>> lookupsById = new SingleFlight<>(LOOKUP_WAIT_TIMEOUT);
+
+    private final SingleFlight<String, Optional<Employee>> lookupsByEmail = new SingleFlight<>(LOOKUP_WAIT_TIMEOUT);
+
    /* public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
         this.employeeRepository = employeeRepository;
     }*/
 
     @Override
+    // replaces a cached "not found" for the new id
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#result.id")
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundExceptiion("Employee already exist with given email:" + employee.getEmail());
+        // only emails the filter has seen can be duplicates, new ones go straight to the insert
+        if(knownEmailFilter.mightContain(employee.getEmail())){
+            Optional<Employee> savedEmployee = coalesce(lookupsByEmail, employee.getEmail(),
+                    () -> employeeRepository.findByEmail(employee.getEmail()));
+            if(savedEmployee.isPresent()){
+                throw new ResourceNotFoundExceptiion("Employee already exist with given email:" + employee.getEmail());
+            }
+        }
+        try {
+            Employee savedEmployee = employeeRepository.save(employee);
+            knownEmailFilter.add(savedEmployee.getEmail());
+            eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee));
+            // the copy is what gets cached, the saved entity stays managed until the request ends
+            return savedEmployee.toBuilder().build();
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(employee.getEmail(), e);
         }
-        return employeeRepository.save(employee);
+    }
+
+    @Override
+    @Transactional
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        // the email column compares case-insensitively, so does this set
+        Set<String> takenEmails = new HashSet<>();
+        List<String> emails = employees.stream()
+                .map(Employee::getEmail)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        for (int from = 0; from < emails.size(); from += IN_LIST_CHUNK_SIZE) {
+            employeeRepository.findExistingEmails(emails.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, emails.size())))
+                    .forEach(email -> takenEmails.add(email.toLowerCase(Locale.ROOT)));
+        }
+
+        EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+        List<Employee> newEmployees = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+                results[i] = new EmployeeBatchResult(i, EmployeeBatchResult.Status.INVALID, employee,
+                        "firstName, lastName and email are required");
+            } else if (!takenEmails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                results[i] = new EmployeeBatchResult(i, EmployeeBatchResult.Status.DUPLICATE_EMAIL, employee,
+                        "Employee already exist with given email:" + employee.getEmail());
+            } else {
+                newEmployees.add(employee);
+            }
+        }
+
+        try {
+            employeeRepository.batchInsert(newEmployees);
+        } catch (DataIntegrityViolationException e) {
+            // an email was taken by a concurrent create after the duplicate check
+            throw translateDuplicateEmail(null, e);
+        }
+        // only the new ids can have a cached "not found", with group commit this runs for every create
+        Cache employeesCache = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+        newEmployees.forEach(employee -> {
+            if (employeesCache != null) {
+                employeesCache.evict(employee.getId());
+            }
+            knownEmailFilter.add(employee.getEmail());
+            eventPublisher.publishEvent(EmployeeChangedEvent.created(employee));
+        });
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = new EmployeeBatchResult(i, EmployeeBatchResult.Status.CREATED, employees.get(i), null);
+            }
+        }
+        return List.of(results);
     }
 
     @Override
@@ -37,18 +161,185 @@ public class EmployeeServiceImpl implements EmployeeService{
     }
 
     @Override
+    // read-only like the inherited finders, so the page can be served by a replica
+    @Transactional(readOnly = true)
+    public Slice<Employee> getEmployees(long afterId, int pageSize) {
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        return employeeRepository.findByIdGreaterThan(afterId, PageRequest.of(0, size, Sort.by("id")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                consumer.accept(employee);
+                // keep the persistence context from growing with the result set
+                entityManager.detach(employee);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Employee> searchEmployeesByName(String name, int page, int pageSize) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE));
+        // "Last, First" pins the last name and searches the first name, anything else is a last-name prefix
+        int comma = name.indexOf(',');
+        if (comma >= 0) {
+            return employeeRepository.searchByLastNameAndFirstNamePrefix(name.substring(0, comma).trim(),
+                    LikePatterns.escape(name.substring(comma + 1).trim()) + "%", pageRequest);
+        }
+        return employeeRepository.searchByLastNamePrefix(LikePatterns.escape(name.trim()) + "%", pageRequest);
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        return employeeSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    @Override
+    // empty results are cached as well, so repeated lookups of unknown ids stay off the database
+    // sync: concurrent misses of the same id wait for one load instead of each loading it
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", sync = true)
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        // coalesced here as well, for when the cache is switched off
+        return coalesce(lookupsById, id, () -> {
+            // whatever is loaded here is cached and shared, it never comes from a replica that is behind
+            try (ReadYourWrites.Binding binding = ReadYourWrites.bind(ReadYourWrites.primaryOnly())) {
+                // a detached copy is cached, the managed entity is changed by merges into the open persistence context
+                return employeeRepository.findById(id).map(employee -> employee.toBuilder().build());
+            }
+        });
     }
 
     @Override
+    // evicted before as well, so a failed update never leaves an entry behind
+    // and after, so a lookup racing the update does not keep the old row
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#updateEmployee.id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#updateEmployee.id")
+    })
     public Employee updateEmployee(Employee updateEmployee) {
-        return employeeRepository.save(updateEmployee);
+        try {
+            Employee updatedEmployee = employeeRepository.save(updateEmployee);
+            knownEmailFilter.add(updatedEmployee.getEmail());
+            eventPublisher.publishEvent(EmployeeChangedEvent.updated(updatedEmployee));
+            return updatedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(updateEmployee.getEmail(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean patchEmployee(long id, Long expectedVersion, Employee changes) {
+        try {
+            int updated = employeeRepository.patchEmployee(id, expectedVersion, changes.getFirstName(),
+                    changes.getLastName(), changes.getEmail());
+            if (updated == 0) {
+                if (expectedVersion != null && employeeRepository.existsById(id)) {
+                    throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+                }
+                return false;
+            }
+            if (changes.getEmail() != null) {
+                knownEmailFilter.add(changes.getEmail());
+            }
+            eventPublisher.publishEvent(EmployeeChangedEvent.patched(id, changes));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(changes.getEmail(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean deleteEmployee(long id) {
+        if (employeeRepository.deleteEmployeeById(id) == 0) {
+            return false;
+        }
+        employeeRepository.insertTombstone(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int deleteEmployees(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinctIds.size()));
+            // only the ids that exist get a tombstone and a delete event, unknown ids never reach listeners
+            List<Long> existingIds = employeeRepository.lockExistingIds(chunk);
+            if (existingIds.isEmpty()) {
+                continue;
+            }
+            employeeRepository.insertTombstonesByIds(existingIds);
+            deleted += employeeRepository.deleteEmployeesByIds(existingIds);
+            existingIds.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int deleteEmployeesByEmailDomain(String domain) {
+        String escapedDomain = LikePatterns.escape(domain);
+        employeeRepository.insertTombstonesByEmailDomain(escapedDomain);
+        return publishBulkChange(employeeRepository.deleteEmployeesByEmailDomain(escapedDomain));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int deleteEmployeesByLastName(String lastName) {
+        employeeRepository.insertTombstonesByLastName(lastName);
+        return publishBulkChange(employeeRepository.deleteEmployeesByLastName(lastName));
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int updateEmailDomain(String oldDomain, String newDomain) {
+        try {
+            // the renamed emails are not added to the email filter, the unique index still guards them
+            return publishBulkChange(employeeRepository.updateEmailDomain(LikePatterns.escape(oldDomain),
+                    oldDomain.codePointCount(0, oldDomain.length()), newDomain));
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(null, e);
+        }
+    }
+
+    // a caller inside a transaction may be looking for its own uncommitted changes, it reads for itself
+    private static <K, V> V coalesce(SingleFlight<K, V> flights, K key, Supplier<V> lookup) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return lookup.get();
+        }
+        return flights.execute(key, lookup);
+    }
+
+    private int publishBulkChange(int affected) {
+        if (affected > 0) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.bulkChanged());
+        }
+        return affected;
+    }
+
+    // violations of the unique email index become the usual duplicate email error
+    private static RuntimeException translateDuplicateEmail(String email, DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (message == null || !message.toLowerCase().contains(Employee.EMAIL_UNIQUE_CONSTRAINT)) {
+            return e;
+        }
+        return new ResourceNotFoundExceptiion(email == null
+                ? "Employee already exist with given email"
+                : "Employee already exist with given email:" + email, e);
     }
 
 }
@@ -0,0 +1,50 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every email stored in the employees table. Lets the create
+ * path skip the findByEmail round trip for emails that are definitely new.
+ * It is only an optimization: uniqueness itself is enforced by the unique index
+ * on employees.email, so stale or missing entries never break correctness.
+ */
+@Component
+public class KnownEmailFilter {
+
+    private final EmployeeRepository employeeRepository;
+    private final BloomFilter bloomFilter;
+    private volatile boolean loaded;
+
+    public KnownEmailFilter(EmployeeRepository employeeRepository,
+                            @Value("${employee.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${employee.email-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.employeeRepository = employeeRepository;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<String> emails = employeeRepository.streamAllEmails()) {
+            emails.forEach(bloomFilter::add);
+        }
+        loaded = true;
+    }
+
+    // until the filter is loaded every email might exist
+    public boolean mightContain(String email) {
+        return !loaded || email == null || bloomFilter.mightContain(email);
+    }
+
+    public void add(String email) {
+        bloomFilter.add(email);
+    }
+}
@@ -0,0 +1,45 @@
+package com.jp.springboot.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the stream of employee changes, the modification time and id of
+ * the last change a delta client has seen. Opaque to clients like
+ * {@link PageCursor}, they only ever echo it back. While a client pages
+ * through its first, full sync, the token also carries when that sync
+ * started; null once the client has caught up.
+ */
+public record DeltaToken(LocalDateTime timestamp, long id, LocalDateTime fullSyncFrom) {
+
+    // before every change, a client without a token starts here and receives all employees
+    public static final DeltaToken START = new DeltaToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    public DeltaToken(LocalDateTime timestamp, long id) {
+        this(timestamp, id, null);
+    }
+
+    private static final String PREFIX = "delta:";
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + timestamp + "," + id + (fullSyncFrom != null ? "," + fullSyncFrom : ""))
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DeltaToken decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.startsWith(PREFIX) ? value.substring(PREFIX.length()).split(",", -1) : new String[0];
+            if (parts.length == 2 || parts.length == 3) {
+                return new DeltaToken(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                        parts.length == 3 ? LocalDateTime.parse(parts[2]) : null);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid delta token: " + token, e);
+        }
+        throw new IllegalArgumentException("Invalid delta token: " + token);
+    }
+}
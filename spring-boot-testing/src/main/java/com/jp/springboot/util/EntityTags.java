@@ -0,0 +1,42 @@
+package com.jp.springboot.util;
+
+/**
+ * ETags derived from the employee version column. A single employee gets a
+ * strong tag of its version, a page gets a weak tag hashed from the ids and
+ * versions on it, so a change to any row on the page changes the tag.
+ */
+public final class EntityTags {
+
+    private static final String ANY = "*";
+
+    private EntityTags() {
+    }
+
+    public static String strong(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String weak(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for, null for no header or "*".
+     * If-Match compares strongly, so weak, listed or malformed tags can never
+     * match and are rejected.
+     */
+    public static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid If-Match: " + ifMatch, e);
+            }
+        }
+        throw new IllegalArgumentException("Invalid If-Match: " + ifMatch);
+    }
+}
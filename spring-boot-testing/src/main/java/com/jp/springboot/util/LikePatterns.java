@@ -0,0 +1,18 @@
+package com.jp.springboot.util;
+
+/**
+ * Escapes user input for LIKE patterns. Queries using it must declare
+ * {@code escape '!'}, a backslash is avoided because MySQL treats it as an
+ * escape inside string literals as well.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String escape(String value) {
+        return value.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+}
@@ -0,0 +1,70 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the unique email constraint, uk_employees_email. Databases baselined at
+ * V1 were created before emails had to be unique and may hold duplicates, the
+ * ALTER would then stop on the first one it finds. They are looked up first
+ * and the migration fails listing them, which rows to keep is not ours to
+ * decide. Databases created by V1 already have the constraint and are left
+ * as they are.
+ */
+public class V5__add_employee_email_unique_constraint extends BaseJavaMigration {
+
+    // enough to show what is wrong without flooding the log
+    private static final int MAX_REPORTED_DUPLICATES = 20;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (hasUniqueEmailIndex(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            List<String> duplicates = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT email, COUNT(*) FROM employees GROUP BY email HAVING COUNT(*) > 1 ORDER BY email LIMIT "
+                            + (MAX_REPORTED_DUPLICATES + 1))) {
+                while (resultSet.next()) {
+                    duplicates.add(resultSet.getString(1) + " (" + resultSet.getLong(2) + " rows)");
+                }
+            }
+            if (!duplicates.isEmpty()) {
+                String reported = String.join(", ", duplicates.subList(0, Math.min(duplicates.size(), MAX_REPORTED_DUPLICATES)));
+                throw new FlywayException("Cannot add unique constraint uk_employees_email, employees share an email: "
+                        + reported + (duplicates.size() > MAX_REPORTED_DUPLICATES ? " and more" : "")
+                        + ". Remove or change the duplicates, then run the migration again.");
+            }
+            statement.execute("ALTER TABLE employees ADD CONSTRAINT uk_employees_email UNIQUE (email)");
+        }
+    }
+
+    // a unique index over email and other columns still lets an email repeat, only one on email alone counts
+    private static boolean hasUniqueEmailIndex(Connection connection) throws SQLException {
+        Map<String, List<String>> columnsByIndex = new HashMap<>();
+        try (ResultSet indexes = connection.getMetaData().getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                "employees", true, false)) {
+            while (indexes.next()) {
+                String indexName = indexes.getString("INDEX_NAME");
+                String columnName = indexes.getString("COLUMN_NAME");
+                if (indexName != null && columnName != null) {
+                    columnsByIndex.computeIfAbsent(indexName, name -> new ArrayList<>()).add(columnName);
+                }
+            }
+        }
+        return columnsByIndex.values().stream()
+                .anyMatch(columns -> columns.size() == 1 && "email".equalsIgnoreCase(columns.get(0)));
+    }
+}
@@ -0,0 +1,9 @@
+-- Schema as previously created by hibernate.ddl-auto, existing databases are baselined at this version
+CREATE TABLE IF NOT EXISTS employees (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
@@ -0,0 +1,2 @@
+-- Serves the first/last name lookups and the last-name prefix search, rows come back in index order
+CREATE INDEX idx_employees_last_first ON employees (last_name, first_name);
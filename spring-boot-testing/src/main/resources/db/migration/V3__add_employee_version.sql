@@ -0,0 +1,2 @@
+-- Optimistic locking and ETags, every update bumps the version, existing rows start at 0
+ALTER TABLE employees ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Delta sync: the database sets both timestamps, so bulk updates and batch inserts keep them too
+-- existing rows count as changed when the migration runs
+ALTER TABLE employees ADD COLUMN created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE employees ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+-- Changes since a delta token are a range scan in token order
+CREATE INDEX idx_employees_updated_at ON employees (updated_at, id);
+-- Deleted employee ids for delta clients, purged once older than the tombstone retention
+CREATE TABLE employee_tombstones (
+    employee_id BIGINT      NOT NULL,
+    deleted_at  DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (employee_id)
+);
+CREATE INDEX idx_employee_tombstones_deleted_at ON employee_tombstones (deleted_at, employee_id);
@@ -0,0 +1,8 @@
+-- Newest deletion time among purged tombstones, delta tokens up to it may have missed a delete
+-- one row, it only moves forward
+CREATE TABLE employee_tombstone_purges (
+    id             INT         NOT NULL,
+    purged_through DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+INSERT INTO employee_tombstone_purges (id, purged_through) VALUES (1, '1970-01-01 00:00:00');
@@ -0,0 +1,73 @@
+package com.jp.springboot.benchmark;
+
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares rows/sec of the single-insert path with the batched bulk insert.
+ * Run with: mvn test -Pbenchmark -Dtest=EmployeeBatchInsertBenchmark -Dbenchmark.rows=50000
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class EmployeeBatchInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 5000);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("Benchmark of single insert vs batch insert")
+    @Test
+    public void singleInsertVersusBatchInsert(){
+        List<Employee> single = employees("single");
+        long start = System.nanoTime();
+        single.forEach(employeeService::saveEmployee);
+        double singleRowsPerSecond = rowsPerSecond(start);
+
+        List<Employee> batch = employees("batch");
+        start = System.nanoTime();
+        employeeService.saveEmployees(batch);
+        double batchRowsPerSecond = rowsPerSecond(start);
+
+        System.out.printf("saveEmployee  : %,10.0f rows/sec%n", singleRowsPerSecond);
+        System.out.printf("saveEmployees : %,10.0f rows/sec (%.1fx)%n",
+                batchRowsPerSecond, batchRowsPerSecond / singleRowsPerSecond);
+        assertThat(employeeRepository.count()).isEqualTo(2L * ROWS);
+    }
+
+    private static List<Employee> employees(String prefix) {
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@benchmark.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.jp.springboot.benchmark;
+
+import com.jp.springboot.SpringBootTestingApplication;
+import com.jp.springboot.event.EmployeeChangeFeed;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Opens many subscribers on GET /api/employees/changes, creates employees at a
+ * steady rate and reports how long each change takes to reach every subscriber.
+ * Run with: mvn test -Pbenchmark -Dtest=EmployeeChangeFeedLoadBenchmark -Dbenchmark.subscribers=5000 -Dbenchmark.changes=100
+ * Thousands of subscribers need a raised open file limit (ulimit -n) for the test JVM.
+ */
+@Tag("benchmark")
+public class EmployeeChangeFeedLoadBenchmark {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("benchmark.subscribers", 5000);
+    private static final int CHANGES = Integer.getInteger("benchmark.changes", 100);
+    private static final long CHANGE_INTERVAL_MILLIS = Long.getLong("benchmark.change-interval-millis", 20);
+    // 0.1 ms buckets up to 30 s, slower deliveries land in the last bucket
+    private static final int BUCKETS = 300_000;
+
+    @DisplayName("Benchmark of the employee change feed fan-out")
+    @Test
+    public void fanOutLatency() throws Exception {
+        // command line arguments, default properties would lose against application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--employee.concurrency-limit.enabled=false",
+                        "--server.tomcat.max-connections=20000",
+                        "--server.tomcat.accept-count=10000")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            EmployeeChangeFeed changeFeed = context.getBean(EmployeeChangeFeed.class);
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes")).build();
+            AtomicLongArray sentAt = new AtomicLongArray(CHANGES);
+            AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+            CountDownLatch allDelivered = new CountDownLatch(SUBSCRIBERS);
+            long connectStart = System.nanoTime();
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                // the response only completes when the stream ends
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
+                        new ChangeCounter(sentAt, histogram, allDelivered)));
+            }
+            long connectDeadline = connectStart + TimeUnit.SECONDS.toNanos(60);
+            while (changeFeed.getSubscriberCount() < SUBSCRIBERS && System.nanoTime() < connectDeadline) {
+                Thread.sleep(10);
+            }
+            long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+            assertThat(changeFeed.getSubscriberCount()).isEqualTo(SUBSCRIBERS);
+
+            long changeStart = System.nanoTime();
+            for (int i = 0; i < CHANGES; i++) {
+                sentAt.set(i, System.nanoTime());
+                employeeService.saveEmployee(Employee.builder()
+                        .firstName("Jashobanta")
+                        .lastName("Patra")
+                        .email("feed" + i + "-" + changeStart + "@benchmark.com")
+                        .build());
+                Thread.sleep(CHANGE_INTERVAL_MILLIS);
+            }
+            boolean delivered = allDelivered.await(30, TimeUnit.SECONDS);
+            long deliverySeconds = Math.max(1, (System.nanoTime() - changeStart) / 1_000_000_000);
+
+            long deliveries = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                deliveries += histogram.get(i);
+            }
+            System.out.printf("subscribers : %,d connected in %,d ms%n", SUBSCRIBERS, connectMillis);
+            System.out.printf("changes     : %,d, %,d deliveries (%,d expected), ~%,d deliveries/s%n",
+                    CHANGES, deliveries, (long) SUBSCRIBERS * CHANGES, deliveries / deliverySeconds);
+            System.out.printf("latency     : p50 %,8.1f ms, p99 %,8.1f ms, max %,8.1f ms%n",
+                    percentile(histogram, deliveries, 0.5), percentile(histogram, deliveries, 0.99),
+                    percentile(histogram, deliveries, 1.0));
+            assertThat(delivered).isTrue();
+        }
+    }
+
+    private static double percentile(AtomicLongArray histogram, long count, double fraction) {
+        long rank = (long) Math.ceil(count * fraction);
+        int bucket = 0;
+        for (long seen = 0; bucket < BUCKETS; bucket++) {
+            seen += histogram.get(bucket);
+            if (seen >= rank) {
+                break;
+            }
+        }
+        return (bucket + 1) / 10.0;
+    }
+
+    // one subscriber: changes arrive in the order they were made, the n-th data line is the n-th change
+    private record ChangeCounter(AtomicLongArray sentAt, AtomicLongArray histogram, CountDownLatch allDelivered,
+                                 int[] received) implements Flow.Subscriber<String> {
+
+        private ChangeCounter(AtomicLongArray sentAt, AtomicLongArray histogram, CountDownLatch allDelivered) {
+            this(sentAt, histogram, allDelivered, new int[1]);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:") || received[0] >= sentAt.length()) {
+                return;
+            }
+            long latency = System.nanoTime() - sentAt.get(received[0]);
+            histogram.incrementAndGet((int) Math.min(BUCKETS - 1, latency / 100_000));
+            if (++received[0] == sentAt.length()) {
+                allDelivered.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.jp.springboot.benchmark;
+
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.search.EmployeeSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the search index over synthetic employees and reports build time,
+ * posting list size and search latency percentiles.
+ * Run with: mvn test -Pbenchmark -Dtest=EmployeeSearchIndexBenchmark -Dbenchmark.employees=1000000
+ */
+@Tag("benchmark")
+public class EmployeeSearchIndexBenchmark {
+
+    private static final int EMPLOYEES = Integer.getInteger("benchmark.employees", 1_000_000);
+    private static final int QUERIES = 20_000;
+
+    private static final String[] SYLLABLES = {"ja", "sho", "ban", "ta", "pa", "tra", "anu", "ra", "dha", "be",
+            "hu", "ram", "esh", "je", "na", "si", "mo", "han", "ty", "da", "sa", "hoo", "ku", "mar", "pri", "ya"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "company.com"};
+
+    @DisplayName("Benchmark of the employee search index")
+    @Test
+    public void searchLatency(){
+        Random random = new Random(42);
+        EmployeeSearchIndex searchIndex = new EmployeeSearchIndex();
+        String[] firstNames = new String[EMPLOYEES];
+        long start = System.nanoTime();
+        searchIndex.rebuild(consumer -> {
+            for (int i = 0; i < EMPLOYEES; i++) {
+                firstNames[i] = name(random);
+                String lastName = name(random);
+                consumer.accept(Employee.builder()
+                        .id(i + 1)
+                        .firstName(firstNames[i])
+                        .lastName(lastName)
+                        .email(firstNames[i].toLowerCase() + "." + lastName.toLowerCase() + i + "@" + DOMAINS[i % DOMAINS.length])
+                        .build());
+            }
+        });
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // let the JIT compile the search paths before measuring
+        for (int i = 0; i < QUERIES; i++) {
+            String name = firstNames[random.nextInt(EMPLOYEES)];
+            searchIndex.search(name.substring(0, 1 + random.nextInt(name.length())), 10);
+            searchIndex.search(name.substring(1), 10);
+        }
+
+        // typed prefixes of existing names, every tenth with a dropped character to hit the fuzzy path
+        long[] prefixLatencies = new long[QUERIES];
+        long[] typoLatencies = new long[QUERIES / 10];
+        int prefixes = 0;
+        int typos = 0;
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String name = firstNames[random.nextInt(EMPLOYEES)];
+            boolean typo = i % 10 == 0;
+            String query = typo
+                    ? name.substring(0, name.length() / 2) + name.substring(name.length() / 2 + 1)
+                    : name.substring(0, 1 + random.nextInt(name.length()));
+            long queryStart = System.nanoTime();
+            found += searchIndex.search(query, 10).isEmpty() ? 0 : 1;
+            long latency = System.nanoTime() - queryStart;
+            if (typo) {
+                typoLatencies[typos++] = latency;
+            } else {
+                prefixLatencies[prefixes++] = latency;
+            }
+        }
+
+        System.out.printf("employees     : %,d (built in %,d ms)%n", searchIndex.size(), buildMillis);
+        System.out.printf("postings      : %,d bytes (%.1f bytes/employee)%n",
+                searchIndex.postingsSizeInBytes(), (double) searchIndex.postingsSizeInBytes() / EMPLOYEES);
+        printPercentiles("prefix search", Arrays.copyOf(prefixLatencies, prefixes));
+        printPercentiles("typo search  ", Arrays.copyOf(typoLatencies, typos));
+        assertThat(found).isGreaterThan(QUERIES * 9 / 10);
+    }
+
+    private static void printPercentiles(String label, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%s : p50 %,8.3f ms, p99 %,8.3f ms, max %,8.3f ms%n", label,
+                latencies[latencies.length / 2] / 1_000_000.0,
+                latencies[latencies.length * 99 / 100] / 1_000_000.0,
+                latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
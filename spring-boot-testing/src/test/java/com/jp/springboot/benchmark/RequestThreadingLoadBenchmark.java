@@ -0,0 +1,141 @@
+package com.jp.springboot.benchmark;
+
+import com.jp.springboot.SpringBootTestingApplication;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.service.EmployeeService;
+import com.jp.springboot.util.VirtualThreads;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform and virtual request threads under closed-loop load: every
+ * client sends GET /api/employees back to back, which queries MySQL each time.
+ * The virtual thread run is skipped on runtimes older than Java 21.
+ * Run with: mvn test -Pbenchmark -Dtest=RequestThreadingLoadBenchmark -Dbenchmark.clients=1000,5000,10000 -Dbenchmark.seconds=20
+ * Thousands of clients need a raised open file limit (ulimit -n) for the test JVM.
+ */
+@Tag("benchmark")
+public class RequestThreadingLoadBenchmark {
+
+    private static final String CLIENTS = System.getProperty("benchmark.clients", "1000,5000,10000");
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int WARMUP_SECONDS = 2;
+    // 0.1 ms buckets up to 30 s, slower requests land in the last bucket
+    private static final int BUCKETS = 300_000;
+
+    @DisplayName("Benchmark of platform vs virtual request threads")
+    @Test
+    public void platformVersusVirtualThreads(){
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            if (virtual && !VirtualThreads.isSupported()) {
+                report.add(String.format("%-8s : skipped, needs Java 21 (running %s)", mode, Runtime.version()));
+                continue;
+            }
+            // command line arguments, default properties would lose against application.properties
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                    .run("--server.port=0",
+                            "--employee.threads.virtual=" + virtual,
+                            "--spring.jpa.show-sql=false",
+                            "--server.tomcat.max-connections=20000",
+                            "--server.tomcat.accept-count=10000")) {
+                seed(context);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                for (String clients : CLIENTS.split(",")) {
+                    report.add(String.format("%-8s : %s", mode, load(port, Integer.parseInt(clients.trim()))));
+                }
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        context.getBean(EmployeeRepository.class).deleteAllInBatch();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("load" + i + "@benchmark.com")
+                    .build());
+        }
+        context.getBean(EmployeeService.class).saveEmployees(employees);
+    }
+
+    private static String load(int port, int clients) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=20"))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        LongAdder errors = new LongAdder();
+        long measureFrom = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long measureTo = measureFrom + SECONDS * 1_000_000_000L;
+
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            loops.add(sendUntil(httpClient, request, measureFrom, measureTo, histogram, errors));
+        }
+        CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).join();
+
+        long requests = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            requests += histogram.get(i);
+        }
+        assertThat(requests).isPositive();
+        long p99Rank = (long) Math.ceil(requests * 0.99);
+        int p99Bucket = 0;
+        for (long seen = 0; p99Bucket < BUCKETS; p99Bucket++) {
+            seen += histogram.get(p99Bucket);
+            if (seen >= p99Rank) {
+                break;
+            }
+        }
+        return String.format("%,6d clients %,10.0f req/s  p99 %,9.1f ms  errors %,d",
+                clients, requests / (double) SECONDS, (p99Bucket + 1) / 10.0, errors.sum());
+    }
+
+    // one client: the next request goes out as soon as the previous one completes
+    private static CompletableFuture<Void> sendUntil(HttpClient httpClient, HttpRequest request, long measureFrom,
+                                                     long measureTo, AtomicLongArray histogram, LongAdder errors) {
+        long start = System.nanoTime();
+        if (start >= measureTo) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    long end = System.nanoTime();
+                    if (start >= measureFrom && end <= measureTo) {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.increment();
+                        } else {
+                            histogram.incrementAndGet((int) Math.min(BUCKETS - 1, (end - start) / 100_000));
+                        }
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> sendUntil(httpClient, request, measureFrom, measureTo, histogram, errors));
+    }
+}
@@ -0,0 +1,129 @@
+package com.jp.springboot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jp.springboot.exception.ServiceUnavailableException;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.service.AsyncEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AsyncEmployeeController.class)
+public class AsyncEmployeeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AsyncEmployeeService asyncEmployeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Junit test for createEmployee method
+    @DisplayName("Junit test for createEmployee method")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = Employee.builder()
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+        given(asyncEmployeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        // when - action or the behaviour that we are going test
+
+        MvcResult started = mockMvc.perform(post("/api/async/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(started));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
+    // Junit test for getEmployeeById method
+    @DisplayName("Junit test for getEmployeeById method")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+        given(asyncEmployeeService.getEmployeeById(1L)).willReturn(CompletableFuture.completedFuture(Optional.of(employee)));
+        // when - action or the behaviour that we are going test
+
+        MvcResult started = mockMvc.perform(get("/api/async/employees/{id}", 1L)).andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(started));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.lastName", is(employee.getLastName())));
+    }
+
+    // Junit test for getEmployeeById method with a saturated service
+    @DisplayName("Junit test for getEmployeeById method with a saturated service")
+    @Test
+    public void givenBusyService_whenGetEmployeeById_thenReturn503() throws Exception {
+        // given - precondition or setup
+
+        given(asyncEmployeeService.getEmployeeById(1L)).willReturn(CompletableFuture.failedFuture(
+                new ServiceUnavailableException("Employee service is busy, try again later", new RejectedExecutionException())));
+        // when - action or the behaviour that we are going test
+
+        MvcResult started = mockMvc.perform(get("/api/async/employees/{id}", 1L)).andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(started));
+
+        // then - verify the output
+        response.andExpect(status().isServiceUnavailable())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    // Junit test for deleteEmployee method
+    @DisplayName("Junit test for deleteEmployee method")
+    @Test
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // given - precondition or setup
+
+        given(asyncEmployeeService.deleteEmployee(1L)).willReturn(CompletableFuture.completedFuture(false));
+        // when - action or the behaviour that we are going test
+
+        MvcResult started = mockMvc.perform(delete("/api/async/employees/{id}", 1L)).andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(started));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+}
@@ -2,20 +2,32 @@ package com.jp.springboot.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jp.springboot.codec.EmployeeFormats;
+import com.jp.springboot.dto.EmployeeBatchResult;
 import com.jp.springboot.model.Employee;
 import com.jp.springboot.service.EmployeeService;
+import com.jp.springboot.util.PageCursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.hamcrest.CoreMatchers.is;
@@ -23,7 +35,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 
-@WebMvcTest
+@WebMvcTest(EmployeeController.class)
 public class EmployeeControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -34,6 +46,9 @@ public class EmployeeControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EmployeeFormats employeeFormats;
+
     // Junit test for createEmployee method
     @DisplayName("Junit test for createEmployee method")
      @Test
@@ -63,6 +78,37 @@ public class EmployeeControllerTest {
 
      }
 
+    // Junit test for createEmployees method
+    @DisplayName("Junit test for createEmployees method")
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnResultPerEmployee() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        employeeList.add(Employee.builder().firstName("Anuradha").lastName("Behura").email("jasho@gmail.com").build());
+        given(employeeService.saveEmployees(anyList())).willAnswer((invocation) -> {
+            List<Employee> employees = invocation.getArgument(0);
+            return List.of(
+                    new EmployeeBatchResult(0, EmployeeBatchResult.Status.CREATED, employees.get(0), null),
+                    new EmployeeBatchResult(1, EmployeeBatchResult.Status.DUPLICATE_EMAIL, employees.get(1),
+                            "Employee already exist with given email:jasho@gmail.com"));
+        });
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employeeList)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(employeeList.size())))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("DUPLICATE_EMAIL")))
+                .andExpect(jsonPath("$[1].employee.firstName", is("Anuradha")));
+    }
+
      // Junit test for getAllEmployees method
       @DisplayName("Junit test for getAllEmployees method")
       @Test
@@ -72,7 +118,8 @@ public class EmployeeControllerTest {
           List<Employee> employeeList = new ArrayList<>();
           employeeList.add(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
           employeeList.add(Employee.builder().firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
-          given(employeeService.getAllEmployees()).willReturn(employeeList);
+          given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE))
+                  .willReturn(new SliceImpl<>(employeeList, PageRequest.of(0, EmployeeService.DEFAULT_PAGE_SIZE), false));
           // when - action or the behaviour that we are going test
 
           ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -80,10 +127,184 @@ public class EmployeeControllerTest {
           // then - verify the output
           response.andExpect(status().isOk())
                   .andDo(print())
-                  .andExpect(jsonPath("$.size()", is(employeeList.size())));
+                  .andExpect(jsonPath("$.size()", is(employeeList.size())))
+                  .andExpect(header().doesNotExist(EmployeeController.NEXT_CURSOR_HEADER));
 
       }
 
+    // Junit test for getAllEmployees method - (page with a next cursor)
+    @DisplayName("Junit test for getAllEmployees method - (page with a next cursor)")
+    @Test
+    public void givenMoreEmployeesThanPageSize_whenGetAllEmployees_thenReturnNextCursor() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().id(5L).firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        employeeList.add(Employee.builder().id(7L).firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
+        given(employeeService.getEmployees(4L, 2))
+                .willReturn(new SliceImpl<>(employeeList, PageRequest.of(0, 2), true));
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("cursor", PageCursor.encode(4L))
+                .param("size", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(employeeList.size())))
+                .andExpect(header().string(EmployeeController.NEXT_CURSOR_HEADER, PageCursor.encode(7L)));
+    }
+
+    // Junit test for getAllEmployees method - (negative scenario with invalid cursor)
+    @DisplayName("Junit test for getAllEmployees method - (negative scenario with invalid cursor)")
+    @Test
+    public void givenInvalidCursor_whenGetAllEmployees_thenReturn400() throws Exception {
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(get("/api/employees").param("cursor", "not-a-cursor"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    // Junit test for searchEmployees method
+    @DisplayName("Junit test for searchEmployees method")
+    @Test
+    public void givenNamePrefix_whenSearchEmployees_thenReturnPageOfMatches() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        given(employeeService.searchEmployeesByName("Pat", 0, 1))
+                .willReturn(new SliceImpl<>(employeeList, PageRequest.of(0, 1), true));
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("name", "Pat")
+                .param("size", "1"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is("Patra")))
+                .andExpect(header().string(EmployeeController.NEXT_PAGE_HEADER, "1"));
+    }
+
+    // Junit test for searchEmployees method with the search index
+    @DisplayName("Junit test for searchEmployees method with the search index")
+    @Test
+    public void givenQuery_whenSearchEmployees_thenReturnTopMatches() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        given(employeeService.searchEmployees("jasho", 5)).willReturn(employeeList);
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "jasho")
+                .param("limit", "5"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].firstName", is("Jashobanta")));
+    }
+
+    // Junit test for exportEmployees method
+    @DisplayName("Junit test for exportEmployees method")
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenStreamNdjson() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        employeeList.add(Employee.builder().firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
+        willAnswer((invocation) -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employeeList.forEach(consumer);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+        // when - action or the behaviour that we are going test
+
+        MvcResult result = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(employeeList.get(0)) + "\n"
+                        + objectMapper.writeValueAsString(employeeList.get(1)) + "\n"));
+    }
+
+    // Junit test for exportEmployees method in Smile
+    @DisplayName("Junit test for exportEmployees method in Smile")
+    @Test
+    public void givenSmileAccept_whenExportEmployees_thenStreamSmileSequence() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().id(1L).firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        employeeList.add(Employee.builder().id(2L).firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
+        willAnswer((invocation) -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employeeList.forEach(consumer);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+        // when - action or the behaviour that we are going test
+
+        MvcResult result = mockMvc.perform(get("/api/employees/export").accept(EmployeeFormats.SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeFormats.SMILE))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<Employee> exported = employeeFormats.smileMapper().readerFor(Employee.class).<Employee>readValues(body).readAll();
+        assertThat(exported).extracting(Employee::getEmail).containsExactly("jasho@gmail.com", "anuradha@gmail.com");
+    }
+
+    // Junit test for exportEmployees method in Protobuf
+    @DisplayName("Junit test for exportEmployees method in Protobuf")
+    @Test
+    public void givenProtobufAccept_whenExportEmployees_thenStreamDelimitedMessages() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = Employee.builder().id(1L).firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build();
+        willAnswer((invocation) -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+        // when - action or the behaviour that we are going test
+
+        MvcResult result = mockMvc.perform(get("/api/employees/export")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-protobuf"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeFormats.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+        // a single byte length prefix, the message is shorter than 128 bytes
+        assertThat(body[0]).isEqualTo((byte) (body.length - 1));
+        Employee exported = employeeFormats.protobuf().readEmployee(new ByteArrayInputStream(body, 1, body.length - 1));
+        assertThat(exported.getFirstName()).isEqualTo("Jashobanta");
+        assertThat(exported.getEmail()).isEqualTo("jasho@gmail.com");
+    }
+
       // Junit test for getEmployeeById method - (positive scenario with valid employeeid)
        @DisplayName("Junit test for getEmployeeById method - (positive scenario with valid employeeid)")
        @Test
@@ -109,6 +330,86 @@ public class EmployeeControllerTest {
                    .andExpect(jsonPath("$.email",is(employee.getEmail())));
 
        }
+    // Junit test for getEmployeeById method in CBOR
+    @DisplayName("Junit test for getEmployeeById method in CBOR")
+    @Test
+    public void givenCborAccept_whenGetEmployeeById_thenReturnCborEmployee() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId).accept(MediaType.APPLICATION_CBOR));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(employeeFormats.cborMapper().readValue(body, Employee.class)).usingRecursiveComparison().isEqualTo(employee);
+    }
+
+    // Junit test for getAllEmployees method in Protobuf
+    @DisplayName("Junit test for getAllEmployees method in Protobuf")
+    @Test
+    public void givenProtobufAccept_whenGetAllEmployees_thenReturnEmployeeListMessage() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().id(1L).firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        employeeList.add(Employee.builder().id(2L).firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
+        given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(new SliceImpl<>(employeeList, PageRequest.of(0, EmployeeService.DEFAULT_PAGE_SIZE), false));
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(get("/api/employees").accept(EmployeeFormats.PROTOBUF));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeFormats.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(employeeFormats.protobuf().readEmployees(new ByteArrayInputStream(body))).usingRecursiveFieldByFieldElementComparator().isEqualTo(employeeList);
+    }
+
+    // Junit test for createEmployee method in Protobuf
+    @DisplayName("Junit test for createEmployee method in Protobuf")
+    @Test
+    public void givenProtobufEmployee_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = Employee.builder()
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        employeeFormats.protobuf().writeEmployee(employee, content);
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(EmployeeFormats.PROTOBUF)
+                .content(content.toByteArray()));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
     // Junit test for getEmployeeById method - (negative scenario with valid employeeid)
     @DisplayName("Junit test for getEmployeeById method - (positive scenario with valid employeeid)")
     @Test
@@ -130,6 +431,66 @@ public class EmployeeControllerTest {
         response.andExpect(status().isNotFound())
                 .andDo(print());
     }
+    // Junit test for getEmployeeById method with an unchanged ETag
+    @DisplayName("Junit test for getEmployeeById method with an unchanged ETag")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturn304WithoutBody() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .version(3)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions changed = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""));
+        ResultActions unchanged = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // then - verify the output
+        changed.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        unchanged.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    // Junit test for getAllEmployees method with an unchanged ETag
+    @DisplayName("Junit test for getAllEmployees method with an unchanged ETag")
+    @Test
+    public void givenUnchangedPage_whenGetAllEmployees_thenReturn304() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().id(1L).firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        given(employeeService.getEmployees(0, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(new SliceImpl<>(employeeList, PageRequest.of(0, EmployeeService.DEFAULT_PAGE_SIZE), false));
+        String eTag = mockMvc.perform(get("/api/employees")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions unchanged = mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, eTag));
+        employeeList.get(0).setVersion(1);
+        ResultActions changed = mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        // then - verify the output
+        assertThat(eTag).startsWith("W/");
+        unchanged.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(content().string(""));
+        changed.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)));
+    }
+
     // Junit test for updateEmployee method - positive scenario
     @DisplayName("Junit test for updateEmployee method - positive scenario")
      @Test
@@ -201,6 +562,104 @@ public class EmployeeControllerTest {
                 .andDo(print());
 
     }
+    // Junit test for updateEmployee method with a stale If-Match
+    @DisplayName("Junit test for updateEmployee method with a stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .version(3)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(argThat(employee -> employee.getVersion() == 2)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+        // when - action or the behaviour that we are going test
+
+        ResultActions stale = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+        ResultActions weak = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify the output
+        stale.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        weak.andExpect(status().isPreconditionFailed());
+        verify(employeeService).updateEmployee(any(Employee.class));
+    }
+
+    // Junit test for patchEmployee method with If-Match
+    @DisplayName("Junit test for patchEmployee method with If-Match")
+    @Test
+    public void givenIfMatch_whenPatchEmployee_thenPatchExpectedVersion() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), eq(3L), any(Employee.class))).willReturn(true);
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Jasho\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+    }
+
+    // Junit test for patchEmployee method - positive scenario
+    @DisplayName("Junit test for patchEmployee method - positive scenario")
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenReturn200() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        Employee changes = Employee.builder()
+                .email("anuradha@gmail.com")
+                .build();
+        given(employeeService.patchEmployee(eq(employeeId), isNull(), any(Employee.class))).willReturn(true);
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changes)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+        verify(employeeService).patchEmployee(eq(employeeId), isNull(), argThat(employee ->
+                employee.getFirstName() == null && "anuradha@gmail.com".equals(employee.getEmail())));
+    }
+
+    // Junit test for patchEmployee method - negative scenario
+    @DisplayName("Junit test for patchEmployee method - negative scenario")
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenReturn404() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), isNull(), any(Employee.class))).willReturn(false);
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Jasho\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
     // Junit test for deleteEmployee method
      @DisplayName("Junit test for deleteEmployee method")
      @Test
@@ -208,7 +667,7 @@ public class EmployeeControllerTest {
          // given - precondition or setup
 
             long employeeId = 1L;
-            willDoNothing().given(employeeService).deleteEmployee(employeeId);
+            given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
          // when - action or the behaviour that we are going test
          ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
@@ -219,4 +678,117 @@ public class EmployeeControllerTest {
 
      }
 
+    // Junit test for deleteEmployee method - negative scenario
+    @DisplayName("Junit test for deleteEmployee method - negative scenario")
+    @Test
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // given - precondition or setup
+
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // Junit test for deleteEmployees method
+    @DisplayName("Junit test for deleteEmployees method")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnAffectedCount() throws Exception {
+        // given - precondition or setup
+
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.affected", is(2)));
+    }
+
+    // Junit test for deleteEmployeesByEmailDomain method
+    @DisplayName("Junit test for deleteEmployeesByEmailDomain method")
+    @Test
+    public void givenEmailDomain_whenDeleteEmployeesByEmailDomain_thenReturnAffectedCount() throws Exception {
+        // given - precondition or setup
+
+        given(employeeService.deleteEmployeesByEmailDomain("gmail.com")).willReturn(5);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("domain", "gmail.com"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.affected", is(5)));
+    }
+
+    // Junit test for deleteEmployeesByLastName method
+    @DisplayName("Junit test for deleteEmployeesByLastName method")
+    @Test
+    public void givenLastName_whenDeleteEmployeesByLastName_thenReturnAffectedCount() throws Exception {
+        // given - precondition or setup
+
+        given(employeeService.deleteEmployeesByLastName("Patra")).willReturn(1);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("lastName", "Patra"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.affected", is(1)));
+    }
+
+    // Junit test for updateEmailDomain method
+    @DisplayName("Junit test for updateEmailDomain method")
+    @Test
+    public void givenEmailDomains_whenUpdateEmailDomain_thenReturnAffectedCount() throws Exception {
+        // given - precondition or setup
+
+        given(employeeService.updateEmailDomain("yahoo.com", "gmail.com")).willReturn(4);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/email-domain")
+                .param("from", "yahoo.com")
+                .param("to", "gmail.com"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.affected", is(4)));
+    }
+
+    // Junit test for updateEmailDomain method with blank and malformed domains
+    @DisplayName("Junit test for updateEmailDomain method with blank and malformed domains")
+    @Test
+    public void givenMalformedEmailDomains_whenUpdateEmailDomain_thenReturnBadRequest() throws Exception {
+        // given - precondition or setup
+
+        List<String[]> domains = List.of(
+                new String[]{" ", "gmail.com"},
+                new String[]{"yahoo.com", ""},
+                new String[]{"jasho@yahoo.com", "gmail.com"},
+                new String[]{"yahoo.com", "gmail..com"},
+                new String[]{"yahoo.com", "gmail com"});
+
+        for (String[] fromTo : domains) {
+            // when - action or the behaviour that we are going test
+            ResultActions response = mockMvc.perform(put("/api/employees/email-domain")
+                    .param("from", fromTo[0])
+                    .param("to", fromTo[1]));
+
+            // then - verify the output
+            response.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+        verify(employeeService, never()).updateEmailDomain(anyString(), anyString());
+    }
+
 }
@@ -0,0 +1,102 @@
+package com.jp.springboot.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeChangeFeedTest {
+
+    private static final int CHANGES = 5;
+
+    private EmployeeChangeFeed changeFeed;
+
+    private final CountDownLatch stalledWriting = new CountDownLatch(1);
+
+    private final CountDownLatch releaseStalled = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup(){
+        // one delivery thread, a single stuck write would stop every delivery
+        changeFeed = new EmployeeChangeFeed(new ObjectMapper(), new SimpleMeterRegistry(),
+                100, 100, 1, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    public void tearDown(){
+        releaseStalled.countDown();
+        changeFeed.destroy();
+    }
+
+    // Junit test for onEmployeeChanged method with a subscriber that stopped reading
+    @DisplayName("Junit test for onEmployeeChanged method with a subscriber that stopped reading")
+    @Test
+    public void givenStalledSubscriber_whenOnEmployeeChanged_thenOtherSubscribersStillReceive() throws InterruptedException {
+        // given - precondition or setup
+
+        changeFeed.subscribe(null, new StalledEmitter());
+        List<CountingEmitter> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CountingEmitter reader = new CountingEmitter();
+            changeFeed.subscribe(null, reader);
+            readers.add(reader);
+        }
+
+        // when - action or the behaviour that we are going test
+
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1));
+        // the only delivery thread is now blocked in a write
+        assertThat(stalledWriting.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 2; i <= CHANGES; i++) {
+            changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(i));
+        }
+
+        // then - verify the output
+        for (CountingEmitter reader : readers) {
+            assertThat(reader.received.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(changeFeed.getSubscriberCount()).isEqualTo(readers.size());
+    }
+
+    // the comment sent on subscribe goes through, every change after it blocks
+    private class StalledEmitter extends SseEmitter {
+
+        private boolean connected;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (!connected) {
+                connected = true;
+                return;
+            }
+            stalledWriting.countDown();
+            try {
+                releaseStalled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class CountingEmitter extends SseEmitter {
+
+        // the connected comment and one event per change
+        private final CountDownLatch received = new CountDownLatch(CHANGES + 1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.countDown();
+        }
+    }
+}
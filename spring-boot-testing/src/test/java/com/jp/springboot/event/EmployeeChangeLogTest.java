@@ -0,0 +1,79 @@
+package com.jp.springboot.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeChangeLogTest {
+
+    private EmployeeChangeLog changeLog;
+
+    @BeforeEach
+    public void setup(){
+        changeLog = new EmployeeChangeLog(3, 100);
+    }
+
+    // Junit test for since method
+    @DisplayName("Junit test for since method")
+    @Test
+    public void givenAppendedChanges_whenSince_thenReturnChangesAfterSequence(){
+        // given - precondition or setup
+
+        changeLog.append("created", "{\"employeeId\":1}");
+        changeLog.append("updated", "{\"employeeId\":1}");
+
+        // when - action or the behaviour that we are going test
+
+        List<EmployeeChangeLog.Change> all = changeLog.since(100);
+        List<EmployeeChangeLog.Change> afterFirst = changeLog.since(101);
+        List<EmployeeChangeLog.Change> none = changeLog.since(102);
+
+        // then - verify the output
+        assertThat(all).extracting(EmployeeChangeLog.Change::sequence).containsExactly(101L, 102L);
+        assertThat(afterFirst).extracting(EmployeeChangeLog.Change::type).containsExactly("updated");
+        assertThat(none).isEmpty();
+    }
+
+    // Junit test for since method after the ring wrapped around
+    @DisplayName("Junit test for since method after the ring wrapped around")
+    @Test
+    public void givenMoreChangesThanCapacity_whenSince_thenOnlyRetainedChangesAreResumable(){
+        // given - precondition or setup
+
+        for (int i = 1; i <= 5; i++) {
+            changeLog.append("created", "{\"employeeId\":" + i + "}");
+        }
+
+        // when - action or the behaviour that we are going test
+
+        List<EmployeeChangeLog.Change> oldestRetained = changeLog.since(102);
+        List<EmployeeChangeLog.Change> dropped = changeLog.since(101);
+
+        // then - verify the output
+        assertThat(oldestRetained).extracting(EmployeeChangeLog.Change::sequence).containsExactly(103L, 104L, 105L);
+        assertThat(dropped).isNull();
+        assertThat(changeLog.lastSequence()).isEqualTo(105);
+    }
+
+    // Junit test for since method with a sequence never handed out
+    @DisplayName("Junit test for since method with a sequence never handed out")
+    @Test
+    public void givenUnknownSequence_whenSince_thenReturnNull(){
+        // given - precondition or setup
+
+        changeLog.append("deleted", "{\"employeeId\":1}");
+
+        // when - action or the behaviour that we are going test
+
+        List<EmployeeChangeLog.Change> fromEarlierRun = changeLog.since(7);
+        List<EmployeeChangeLog.Change> fromAnotherServer = changeLog.since(5_000);
+
+        // then - verify the output
+        assertThat(fromEarlierRun).isNull();
+        assertThat(fromAnotherServer).isNull();
+    }
+}
@@ -1,29 +1,55 @@
 package com.jp.springboot.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jp.springboot.config.MetricsConfig;
+import com.jp.springboot.controller.EmployeeChangeController;
+import com.jp.springboot.event.EmployeeChangeFeed;
 import com.jp.springboot.model.Employee;
+import com.jp.springboot.querybudget.QueryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.jp.springboot.querybudget.QueryBudgetExtension;
 import com.jp.springboot.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -39,12 +65,19 @@ public class EmployeeControllerITest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
     @BeforeEach
     public void setup(){
         employeeRepository.deleteAll();
     }
     // Integration test for createEmployee method
     @DisplayName("Integration test of createEmployee method")
+    @QueryBudget(statements = 1)
     @Test
     public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
         // given - precondition or setup
@@ -58,6 +91,8 @@ public class EmployeeControllerITest {
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         ResultActions response = mockMvc.perform(post("/api/employees")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employee)));
@@ -73,6 +108,7 @@ public class EmployeeControllerITest {
 
     // Integration test for getAllEmployees method
     @DisplayName("Integration test for getAllEmployees method")
+    @QueryBudget(statements = 1, entityLoads = 2)
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeesList() throws Exception {
         // given - precondition or setup
@@ -86,6 +122,8 @@ public class EmployeeControllerITest {
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         ResultActions response = mockMvc.perform(get("/api/employees"));
 
         // then - verify the output
@@ -94,8 +132,147 @@ public class EmployeeControllerITest {
                 .andExpect(jsonPath("$.size()", is(employeeList.size())));
 
     }
+    // Integration test for getAllEmployees method with response compression
+    @DisplayName("Integration test for getAllEmployees method with response compression")
+    @QueryBudget(statements = 1, entityLoads = 50)
+    @Test
+    public void givenLargePage_whenGetAllEmployeesAcceptingGzip_thenResponseIsCompressed() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            employeeList.add(Employee.builder().firstName("Jashobanta" + i).lastName("Patra").email("jasho" + i + "@gmail.com").build());
+        }
+        employeeRepository.saveAll(employeeList);
+        // compression happens in Tomcat, MockMvc never gets there
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=100"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(objectMapper.readValue(body, Employee[].class)).hasSize(50);
+        }
+    }
+    // Integration test for service, repository and pool metrics
+    @DisplayName("Integration test for service, repository and pool metrics")
+    @QueryBudget(statements = 1, entityLoads = 1)
+    @Test
+    public void givenRequests_whenReadMetrics_thenServiceRepositoryAndPoolAreMeasured() throws Exception {
+        // given - precondition or setup
+
+        // created through the service, a repository save would bypass the cache
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build())))
+                .andReturn();
+        Employee employee = objectMapper.readValue(created.getResponse().getContentAsString(), Employee.class);
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+
+        long lookupsBefore = meterRegistry.find(MetricsConfig.SERVICE_TIMER).tag("method", "getEmployeeById").timers()
+                .stream().mapToLong(Timer::count).sum();
+        mockMvc.perform(get("/api/employees")).andExpect(status().isOk());
+        // served from the cache, the timer has to wrap the cache advice to see it
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())).andExpect(status().isOk());
+
+        // then - verify the output
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER).tag("method", "getEmployees").timer().count()).isPositive();
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER).tag("method", "getEmployeeById").timers()
+                .stream().mapToLong(Timer::count).sum()).isEqualTo(lookupsBefore + 1);
+        assertThat(meterRegistry.get("spring.data.repository.invocations").tag("method", "findByIdGreaterThan").timer().count()).isPositive();
+        assertThat(meterRegistry.get(MetricsConfig.REPOSITORY_RESULTS).tag("method", "findByIdGreaterThan").summary().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.active").gauge()).isNotNull();
+    }
+    // Integration test for exportEmployees method
+    @DisplayName("Integration test for exportEmployees method")
+    @QueryBudget(statements = 1, entityLoads = 2)
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenStreamNdjson() throws Exception {
+        // given - precondition or setup
+
+        List<Employee> employeeList = new ArrayList<>();
+
+        employeeList.add(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+        employeeList.add(Employee.builder().firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
+
+        employeeRepository.saveAll(employeeList);
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+
+        MvcResult result = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(employeeList.get(0)) + "\n"
+                        + objectMapper.writeValueAsString(employeeList.get(1)) + "\n"));
+
+    }
+
+    // Integration test for the employee change feed
+    @DisplayName("Integration test for the employee change feed")
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @Test
+    public void givenSubscriber_whenEmployeesChange_thenStreamEventsAndResumeFromLastEventId() throws Exception {
+        // given - precondition or setup
+
+        Iterator<String> live = subscribe(null);
+
+        // when - action or the behaviour that we are going test
+
+        Employee first = createEmployee("jasho@gmail.com");
+        Map<String, String> firstEvent = nextEvent(live);
+        // the second change happens while the client is not listening
+        Employee second = createEmployee("anuradha@gmail.com");
+        Map<String, String> resumedEvent = nextEvent(subscribe(firstEvent.get("id")));
+
+        // then - verify the output
+        assertThat(firstEvent.get("event")).isEqualTo("created");
+        assertThat(objectMapper.readTree(firstEvent.get("data")).at("/employee/email").asText()).isEqualTo(first.getEmail());
+        assertThat(resumedEvent.get("event")).isEqualTo("created");
+        assertThat(objectMapper.readTree(resumedEvent.get("data")).at("/employee/id").asLong()).isEqualTo(second.getId());
+        assertThat(Long.parseLong(resumedEvent.get("id"))).isGreaterThan(Long.parseLong(firstEvent.get("id")));
+    }
+
+    // Integration test for the employee change feed with an unknown Last-Event-ID
+    @DisplayName("Integration test for the employee change feed with an unknown Last-Event-ID")
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @Test
+    public void givenUnknownLastEventId_whenSubscribe_thenStreamStartsWithReset() throws Exception {
+        // given - precondition or setup
+
+        // numbered from an earlier start of the application
+        String lastEventId = "1";
+
+        // when - action or the behaviour that we are going test
+
+        Map<String, String> event = nextEvent(subscribe(lastEventId));
+
+        // then - verify the output
+        assertThat(event.get("event")).isEqualTo(EmployeeChangeFeed.RESET_EVENT);
+        assertThat(event.get("id")).isNotBlank();
+    }
+
     // Junit test for getEmployeeById method - (positive scenario with valid employeeid)
     @DisplayName("Junit test for getEmployeeById method - (positive scenario with valid employeeid)")
+    @QueryBudget(statements = 1, entityLoads = 1)
     @Test
     public void givenValidEmployeeId_whenGetEmployeeById_thenReturnsEmployeeObject() throws Exception {
         // given - precondition or setup
@@ -110,6 +287,8 @@ public class EmployeeControllerITest {
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         ResultActions response = mockMvc.perform(get("/api/employees/{id}",employee.getId()));
         // then - verify the output
         response.andExpect(status().isOk())
@@ -122,20 +301,24 @@ public class EmployeeControllerITest {
 
     // Junit test for getEmployeeById method - (negative scenario with valid employeeid)
     @DisplayName("Junit test for getEmployeeById method - (positive scenario with valid employeeid)")
+    @QueryBudget(statements = 1)
     @Test
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnsEmployeeObject() throws Exception {
         // given - precondition or setup
 
-        long employeeId = 1L;
         Employee employee = Employee.builder()
                 .firstName("Jashobanta")
                 .lastName("Patra")
                 .email("jashobanta@gmail.com")
                 .build();
         employeeRepository.save(employee);
+        // ids are never reused, so the next one cannot exist yet
+        long employeeId = employee.getId() + 1;
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         ResultActions response = mockMvc.perform(get("/api/employees/{id}",employeeId));
         // then - verify the output
         response.andExpect(status().isNotFound())
@@ -144,6 +327,7 @@ public class EmployeeControllerITest {
 
     // Junit test for updateEmployee method - positive scenario
     @DisplayName("Junit test for updateEmployee method - positive scenario")
+    @QueryBudget(statements = 2, entityLoads = 1)
     @Test
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdatedEmployee() throws Exception {
         // given - precondition or setup
@@ -165,6 +349,8 @@ public class EmployeeControllerITest {
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updatedEmployee)));
@@ -180,12 +366,11 @@ public class EmployeeControllerITest {
 
     // Junit test for updateEmployee method - negative scenario
     @DisplayName("Junit test for updateEmployee method - positive scenario")
+    @QueryBudget(statements = 1)
     @Test
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
         // given - precondition or setup
 
-        long employeeId=1L;
-
         Employee savedEmployee = Employee.builder()
                 .firstName("Jashobanta")
                 .lastName("Patra")
@@ -193,6 +378,8 @@ public class EmployeeControllerITest {
                 .build();
 
         employeeRepository.save(savedEmployee);
+        // ids are never reused, so the next one cannot exist yet
+        long employeeId = savedEmployee.getId() + 1;
 
         Employee updatedEmployee = Employee.builder()
                 .firstName("Jashobanta")
@@ -203,6 +390,8 @@ public class EmployeeControllerITest {
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updatedEmployee)));
@@ -213,8 +402,126 @@ public class EmployeeControllerITest {
 
     }
 
+    // Integration test for conditional requests with ETags
+    @DisplayName("Integration test for conditional requests with ETags")
+    // the update loads and writes, the lost update finds its version gone on load
+    // the update loads and writes, the lost update is refused on the row its own lookup loaded
+    @QueryBudget(statements = 4, entityLoads = 3)
+    @Test
+    public void givenETag_whenConditionalGetAndUpdate_thenReturn304And412() throws Exception {
+        // given - precondition or setup
+
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build())))
+                .andReturn();
+        Employee employee = objectMapper.readValue(created.getResponse().getContentAsString(), Employee.class);
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("anuradha@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+        String eTag = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        ResultActions unchanged = mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+        ResultActions updated = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        ResultActions lostUpdate = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the output
+        unchanged.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        updated.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())));
+        lostUpdate.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        assertThat(employeeRepository.findById(employee.getId()).get().getEmail()).isEqualTo(updatedEmployee.getEmail());
+    }
+
+    // Integration test for patchEmployee method
+    @DisplayName("Integration test for patchEmployee method")
+    @QueryBudget(statements = 2, entityLoads = 1)
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenOnlyGivenFieldsChange() throws Exception {
+        // given - precondition or setup
+
+        Employee savedEmployee = Employee.builder()
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+
+        employeeRepository.save(savedEmployee);
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"anuradha@gmail.com\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+        Employee patchedEmployee = employeeRepository.findById(savedEmployee.getId()).get();
+        assertThat(patchedEmployee.getEmail()).isEqualTo("anuradha@gmail.com");
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Jashobanta");
+
+    }
+
+    // Integration test for searchEmployees method
+    @DisplayName("Integration test for searchEmployees method")
+    @QueryBudget(statements = 0)
+    @Test
+    public void givenCreatedAndPatchedEmployee_whenSearchEmployees_thenReturnCurrentState() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = Employee.builder()
+                .firstName("Suryakanta")
+                .lastName("Mohapatra")
+                .email("suryakanta@gmail.com")
+                .build();
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)))
+                .andReturn();
+        long employeeId = objectMapper.readValue(created.getResponse().getContentAsString(), Employee.class).getId();
+        mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Rout\"}"));
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+
+        ResultActions byOldName = mockMvc.perform(get("/api/employees/search").param("q", "mohapat"));
+        ResultActions byPrefix = mockMvc.perform(get("/api/employees/search").param("q", "surya"));
+
+        // then - verify the output
+        byOldName.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(0)));
+        byPrefix.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is("Rout")));
+    }
+
     // Junit test for deleteEmployee method
     @DisplayName("Junit test for deleteEmployee method")
+    // the delete and the tombstone for delta clients
+    @QueryBudget(statements = 2)
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
         // given - precondition or setup
@@ -228,6 +535,8 @@ public class EmployeeControllerITest {
        employeeRepository.save(savedEmployee);
 
         // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
 
         // then - verify the output
@@ -235,4 +544,43 @@ public class EmployeeControllerITest {
                 .andDo(print());
 
     }
+
+    private Employee createEmployee(String email) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder().firstName("Jashobanta").lastName("Patra").email(email).build())))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(created.getResponse().getContentAsString(), Employee.class);
+    }
+
+    // the response headers arrive once the subscription is registered
+    private Iterator<String> subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        if (lastEventId != null) {
+            request.header(EmployeeChangeController.LAST_EVENT_ID_HEADER, lastEventId);
+        }
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(
+                contentType -> assertThat(contentType).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        return response.body().iterator();
+    }
+
+    // the fields of the next event, comments and retry lines skipped
+    private static Map<String, String> nextEvent(Iterator<String> lines) {
+        Map<String, String> fields = new HashMap<>();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty() && fields.containsKey("data")) {
+                return fields;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                fields.put(line.substring(0, colon), line.substring(colon + 1));
+            }
+        }
+        throw new IllegalStateException("Change feed ended before the next event");
+    }
 }
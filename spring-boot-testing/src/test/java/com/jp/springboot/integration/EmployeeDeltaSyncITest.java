@@ -0,0 +1,252 @@
+package com.jp.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jp.springboot.dto.EmployeeDelta;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.querybudget.QueryBudget;
+import com.jp.springboot.querybudget.QueryBudgetExtension;
+import com.jp.springboot.service.EmployeeDeltaService;
+import com.jp.springboot.util.DeltaToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Delta sync against its own embedded database, so tombstones of other tests
+ * never show up. The settle window is off, changes are visible right after
+ * their commit.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:delta-sync;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "employee.delta.settle-window=0s"})
+@AutoConfigureMockMvc
+public class EmployeeDeltaSyncITest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeDeltaService employeeDeltaService;
+
+    @BeforeEach
+    public void setup(){
+        jdbcTemplate.update("delete from employees");
+        jdbcTemplate.update("delete from employee_tombstones");
+    }
+
+    // Integration test for getDelta method
+    @DisplayName("Integration test for getDelta method")
+    // purge watermark, database time, changed employees and tombstones
+    @QueryBudget(statements = 4, entityLoads = 2)
+    @Test
+    public void givenChangesAfterToken_whenGetDelta_thenReturnOnlyThoseChanges() throws Exception {
+        // given - precondition or setup
+
+        Employee unchanged = createEmployee("unchanged@gmail.com");
+        String token = drain(null);
+        Employee updated = createEmployee("jasho@gmail.com");
+        Employee deleted = createEmployee("anuradha@gmail.com");
+        mockMvc.perform(put("/api/employees/{id}", updated.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder().firstName("Jasho").lastName("Patra").email("jasho@gmail.com").build())))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/employees/{id}", deleted.getId()))
+                .andExpect(status().isOk());
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+        EmployeeDelta delta = getDelta(token, 20);
+
+        // then - verify the output
+        assertThat(delta.getChanged()).extracting(Employee::getId).containsExactly(updated.getId());
+        assertThat(delta.getChanged()).extracting(Employee::getFirstName).containsExactly("Jasho");
+        assertThat(delta.getDeleted()).containsExactly(deleted.getId());
+        assertThat(delta.getChanged()).extracting(Employee::getId).doesNotContain(unchanged.getId());
+        assertThat(delta.isHasMore()).isFalse();
+        assertThat(delta.getNext()).isNotEqualTo(token);
+    }
+
+    // Integration test for getDelta method with pages
+    @DisplayName("Integration test for getDelta method with pages")
+    @Test
+    public void givenMoreChangesThanPageSize_whenGetDelta_thenPageThroughAllOnce() throws Exception {
+        // given - precondition or setup
+
+        Employee first = createEmployee("first@gmail.com");
+        Employee second = createEmployee("second@gmail.com");
+        Employee third = createEmployee("third@gmail.com");
+
+        // when - action or the behaviour that we are going test
+
+        EmployeeDelta firstPage = getDelta(null, 2);
+        EmployeeDelta secondPage = getDelta(firstPage.getNext(), 2);
+        EmployeeDelta nothingNew = getDelta(secondPage.getNext(), 2);
+
+        // then - verify the output
+        assertThat(firstPage.getChanged()).extracting(Employee::getId).containsExactly(first.getId(), second.getId());
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(secondPage.getChanged()).extracting(Employee::getId).containsExactly(third.getId());
+        assertThat(secondPage.isHasMore()).isFalse();
+        assertThat(nothingNew.getChanged()).isEmpty();
+        assertThat(nothingNew.getDeleted()).isEmpty();
+        assertThat(DeltaToken.decode(nothingNew.getNext()).timestamp())
+                .isAfterOrEqualTo(DeltaToken.decode(secondPage.getNext()).timestamp());
+    }
+
+    // Integration test for getDelta method on a quiet table
+    @DisplayName("Integration test for getDelta method on a quiet table")
+    @Test
+    public void givenOldTokenAndNoChanges_whenGetDelta_thenTokenMovesUp() throws Exception {
+        // given - precondition or setup
+
+        // older than the tombstone retention, but no tombstone after it was ever purged
+        LocalDateTime sixtyDaysAgo = LocalDateTime.now().minusDays(60);
+        String oldToken = new DeltaToken(sixtyDaysAgo, 0).encode();
+
+        // when - action or the behaviour that we are going test
+
+        EmployeeDelta delta = getDelta(oldToken, 20);
+
+        // then - verify the output
+        assertThat(delta.getChanged()).isEmpty();
+        assertThat(delta.getDeleted()).isEmpty();
+        // database time, it moved up to the settle window whatever the time zone of the database
+        assertThat(DeltaToken.decode(delta.getNext()).timestamp()).isAfter(sixtyDaysAgo.plusDays(58));
+    }
+
+    // Integration test for getDelta method after bulk statements
+    @DisplayName("Integration test for getDelta method after bulk statements")
+    @Test
+    public void givenBulkUpdateAndDelete_whenGetDelta_thenReturnAffectedEmployees() throws Exception {
+        // given - precondition or setup
+
+        Employee renamed = createEmployee("jasho@old.com");
+        Employee removed = Employee.builder().firstName("Ramesh").lastName("Jena").email("ramesh@gmail.com").build();
+        removed = createEmployee(removed);
+        String token = drain(null);
+        mockMvc.perform(put("/api/employees/email-domain").param("from", "old.com").param("to", "new.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/employees").param("lastName", "Jena"))
+                .andExpect(status().isOk());
+
+        // when - action or the behaviour that we are going test
+
+        EmployeeDelta delta = getDelta(token, 20);
+
+        // then - verify the output
+        assertThat(delta.getChanged()).extracting(Employee::getId).containsExactly(renamed.getId());
+        assertThat(delta.getChanged()).extracting(Employee::getEmail).containsExactly("jasho@new.com");
+        assertThat(delta.getDeleted()).containsExactly(removed.getId());
+    }
+
+    // Integration test for a full sync after a purge
+    @DisplayName("Integration test for a full sync after a purge")
+    @Test
+    public void givenPurgeNewerThanEmployees_whenFullSyncInPages_thenEveryPageIsServed() throws Exception {
+        // given - precondition or setup
+
+        Employee first = createEmployee("first@gmail.com");
+        Employee second = createEmployee("second@gmail.com");
+        Employee third = createEmployee("third@gmail.com");
+        // unchanged for years, like rows stamped when the timestamps were added
+        jdbcTemplate.update("update employees set updated_at = '2001-01-01 00:00:00'");
+        jdbcTemplate.update("insert into employee_tombstones (employee_id, deleted_at) values (99, '2002-01-01 00:00:00')");
+        employeeDeltaService.purgeTombstones();
+
+        // when - action or the behaviour that we are going test
+
+        List<Long> synced = new ArrayList<>();
+        String since = null;
+        EmployeeDelta page;
+        do {
+            page = getDelta(since, 2);
+            page.getChanged().forEach(employee -> synced.add(employee.getId()));
+            since = page.getNext();
+        } while (page.isHasMore());
+
+        // then - verify the output
+        assertThat(synced).containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(DeltaToken.decode(since).fullSyncFrom()).isNull();
+    }
+
+    // Integration test for getDelta method with invalid and expired tokens
+    @DisplayName("Integration test for getDelta method with invalid and expired tokens")
+    @Test
+    public void givenInvalidAndExpiredTokens_whenGetDelta_thenReturn400And410() throws Exception {
+        // given - precondition or setup
+
+        jdbcTemplate.update("insert into employee_tombstones (employee_id, deleted_at) values (99, '2000-01-02 00:00:00')");
+        employeeDeltaService.purgeTombstones();
+        String expired = new DeltaToken(LocalDateTime.of(2000, 1, 1, 0, 0), 1).encode();
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions invalidResponse = mockMvc.perform(get("/api/employees/delta").param("since", "not-a-token"));
+        ResultActions expiredResponse = mockMvc.perform(get("/api/employees/delta").param("since", expired));
+
+        // then - verify the output
+        invalidResponse.andExpect(status().isBadRequest());
+        expiredResponse.andExpect(status().isGone());
+    }
+
+    private Employee createEmployee(String email) throws Exception {
+        return createEmployee(Employee.builder().firstName("Jashobanta").lastName("Patra").email(email).build());
+    }
+
+    private Employee createEmployee(Employee employee) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(created.getResponse().getContentAsString(), Employee.class);
+    }
+
+    private EmployeeDelta getDelta(String since, int size) throws Exception {
+        MvcResult result = mockMvc.perform(since == null
+                        ? get("/api/employees/delta").param("size", String.valueOf(size))
+                        : get("/api/employees/delta").param("since", since).param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeDelta.class);
+    }
+
+    // what a client does on its first sync, the returned token is where the next one starts
+    private String drain(String since) throws Exception {
+        EmployeeDelta delta;
+        do {
+            delta = getDelta(since, 100);
+            since = delta.getNext();
+        } while (delta.isHasMore());
+        return since;
+    }
+}
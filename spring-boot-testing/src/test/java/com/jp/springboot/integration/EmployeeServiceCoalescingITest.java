@@ -0,0 +1,108 @@
+package com.jp.springboot.integration;
+
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.querybudget.QueryBudget;
+import com.jp.springboot.querybudget.QueryBudgetExtension;
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.answersWithDelay;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// without the cache, whose synchronized loads would coalesce the lookups before the service sees them
+@SpringBootTest(properties = "spring.cache.type=none")
+public class EmployeeServiceCoalescingITest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    @Qualifier("employeeRepository")
+    private EmployeeRepository realEmployeeRepository;
+
+    // Spring Data repositories cannot be spied on, the service gets a mock calling through to the real one
+    @TestConfiguration
+    static class DelegatingRepositoryConfig {
+        @Bean
+        @Primary
+        public EmployeeRepository delegatingEmployeeRepository(@Qualifier("employeeRepository") EmployeeRepository employeeRepository) {
+            return mock(EmployeeRepository.class, delegatesTo(employeeRepository));
+        }
+    }
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAll();
+    }
+
+    // Integration test for getEmployeeById method with concurrent lookups of the same employee
+    @DisplayName("Integration test for getEmployeeById method with concurrent lookups of the same employee")
+    // one select for all threads, however the lookups overlap
+    @QueryBudget(statements = 1, entityLoads = 1)
+    @Test
+    public void givenConcurrentLookupsOfSameId_whenGetEmployeeById_thenOneQuery() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build());
+        // a slow first lookup, so the other threads arrive while it is in flight
+        willAnswer(answersWithDelay(500, delegatesTo(realEmployeeRepository)))
+                .given(employeeRepository).findById(employee.getId());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<Employee>>> futures = new ArrayList<>();
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return employeeService.getEmployeeById(employee.getId());
+            }));
+        }
+        start.countDown();
+        List<Optional<Employee>> results = new ArrayList<>();
+        for (Future<Optional<Employee>> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // then - verify the output
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        assertThat(results).allSatisfy(result -> assertThat(result).get()
+                .extracting(Employee::getEmail).isEqualTo("jashobanta@gmail.com"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.jp.springboot.integration;
+
+import com.jp.springboot.exception.ResourceNotFoundExceptiion;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.querybudget.QueryBudget;
+import com.jp.springboot.querybudget.QueryBudgetExtension;
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EmployeeServiceConcurrencyITest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAll();
+    }
+
+    // Integration test for saveEmployee method with concurrent creates of the same email
+    @DisplayName("Integration test for saveEmployee method with concurrent creates of the same email")
+    // at most a lookup and an insert per thread, the race decides how many, and the findAll at the end
+    @QueryBudget(statements = 2 * THREADS + 1, entityLoads = THREADS)
+    @Test
+    public void givenConcurrentCreatesWithSameEmail_whenSaveEmployee_thenOnlyOneSucceeds() throws Exception {
+        // given - precondition or setup
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
+
+        for (int i = 0; i < THREADS; i++) {
+            String firstName = "Jashobanta" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    employeeService.saveEmployee(Employee.builder()
+                            .firstName(firstName)
+                            .lastName("Patra")
+                            .email("jashobanta@gmail.com")
+                            .build());
+                    created.incrementAndGet();
+                } catch (ResourceNotFoundExceptiion e) {
+                    duplicates.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then - verify the output
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(duplicates.get()).isEqualTo(THREADS - 1);
+        assertThat(employeeRepository.findAll()).hasSize(1);
+    }
+}
@@ -0,0 +1,230 @@
+package com.jp.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jp.springboot.datasource.ReadYourWrites;
+import com.jp.springboot.datasource.ReadYourWritesFilter;
+import com.jp.springboot.event.EmployeeChangedEvent;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.search.EmployeeSearchIndexUpdater;
+import com.jp.springboot.service.EmployeeService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two embedded databases stand in for the primary and a replica. Nothing
+ * replicates between them, so what a read returns shows where it went. Both
+ * replica pools point at the same database to exercise least-loaded selection.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingITest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "employee.datasource.replica-urls=" + ReadReplicaRoutingITest.REPLICA_URL + "," + ReadReplicaRoutingITest.REPLICA_URL,
+        "employee.datasource.replica-selection=least-loaded",
+        "employee.datasource.read-your-writes-window=1m",
+        "spring.cache.type=none"})
+@AutoConfigureMockMvc
+public class ReadReplicaRoutingITest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeSearchIndexUpdater searchIndexUpdater;
+
+    // the application reads from the replica on startup, its schema has to exist first
+    @BeforeAll
+    public static void migrateReplica(){
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    // straight through JDBC, a delete through the application would count as a write of the test thread
+    @BeforeEach
+    public void setup(){
+        primary.update("delete from employees");
+        replica.update("delete from employees");
+    }
+
+    // Integration test for getEmployees method on a replica
+    @DisplayName("Integration test for getEmployees method on a replica")
+    @Test
+    public void givenRowOnlyOnReplica_whenGetEmployees_thenReadFromReplica(){
+        // given - precondition or setup
+
+        insert(primary, 1, "primary@gmail.com");
+        insert(replica, 2, "replica@gmail.com");
+
+        // when - action or the behaviour that we are going test
+
+        List<Employee> employees;
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(new ReadYourWrites(0, until -> {}))) {
+            employees = employeeService.getEmployees(0, 20).getContent();
+        }
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("replica@gmail.com");
+    }
+
+    // Integration test for getEmployees method after a write of the same client
+    @DisplayName("Integration test for getEmployees method after a write of the same client")
+    @Test
+    public void givenSaveEmployee_whenGetEmployees_thenReadYourWritesFromPrimary(){
+        // given - precondition or setup
+
+        ReadYourWrites writer = new ReadYourWrites(0, until -> {});
+        ReadYourWrites otherClient = new ReadYourWrites(0, until -> {});
+
+        // when - action or the behaviour that we are going test
+
+        List<Employee> writerReads;
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(writer)) {
+            employeeService.saveEmployee(Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build());
+            writerReads = employeeService.getEmployees(0, 20).getContent();
+        }
+        List<Employee> otherReads;
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(otherClient)) {
+            otherReads = employeeService.getEmployees(0, 20).getContent();
+        }
+
+        // then - verify the output
+        assertThat(writer.readsFromPrimary()).isTrue();
+        assertThat(writerReads).extracting(Employee::getEmail).containsExactly("jasho@gmail.com");
+        assertThat(otherReads).isEmpty();
+    }
+
+    // Integration test for read-your-writes across requests
+    @DisplayName("Integration test for read-your-writes across requests")
+    @Test
+    public void givenCreateEmployee_whenGetAllEmployeesWithCookie_thenReadFromPrimary() throws Exception {
+        // given - precondition or setup
+
+        Employee employee = Employee.builder().firstName("Jashobanta").lastName("Patra").email("jasho@gmail.com").build();
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn();
+        Cookie primaryUntil = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions withCookie = mockMvc.perform(get("/api/employees").cookie(primaryUntil));
+        ResultActions withoutCookie = mockMvc.perform(get("/api/employees"));
+
+        // then - verify the output
+        withCookie.andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].email", contains("jasho@gmail.com")));
+        withoutCookie.andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()))
+                .andExpect(cookie().doesNotExist(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    // Integration test for updateEmployee method, a read then a write in one request
+    @DisplayName("Integration test for updateEmployee method, a read then a write in one request")
+    @Test
+    public void givenEmployeeOnBoth_whenUpdateEmployee_thenWriteGoesToPrimary() throws Exception {
+        // given - precondition or setup
+
+        insert(primary, 1, "jasho@gmail.com");
+        insert(replica, 1, "jasho@gmail.com");
+        Employee changes = Employee.builder().firstName("Ram").lastName("Jena").email("ram@gmail.com").build();
+
+        // when - action or the behaviour that we are going test
+
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changes)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME));
+        assertThat(primary.queryForObject("select email from employees where id = 1", String.class)).isEqualTo("ram@gmail.com");
+        assertThat(replica.queryForObject("select email from employees where id = 1", String.class)).isEqualTo("jasho@gmail.com");
+    }
+
+    // Integration test for getEmployeeById method, whose result is cached
+    @DisplayName("Integration test for getEmployeeById method, whose result is cached")
+    @Test
+    public void givenReplicaBehind_whenGetEmployeeById_thenReadFromPrimary(){
+        // given - precondition or setup
+
+        insert(primary, 1, "primary@gmail.com");
+
+        // when - action or the behaviour that we are going test
+
+        Optional<Employee> employee;
+        try (ReadYourWrites.Binding binding = ReadYourWrites.bind(new ReadYourWrites(0, until -> {}))) {
+            employee = employeeService.getEmployeeById(1);
+        }
+
+        // then - verify the output
+        assertThat(employee).get().extracting(Employee::getEmail).isEqualTo("primary@gmail.com");
+    }
+
+    // Integration test for the search index rebuild after a bulk change
+    @DisplayName("Integration test for the search index rebuild after a bulk change")
+    @Test
+    public void givenReplicaBehind_whenSearchIndexRebuilds_thenLoadFromPrimary() throws InterruptedException {
+        // given - precondition or setup
+
+        insert(primary, 1, "primary@gmail.com");
+        insert(replica, 2, "replica@gmail.com");
+
+        // when - action or the behaviour that we are going test
+
+        searchIndexUpdater.onEmployeeChanged(EmployeeChangedEvent.bulkChanged());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (employeeService.searchEmployees("primary", 10).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // then - verify the output
+        assertThat(employeeService.searchEmployees("primary", 10)).extracting(Employee::getId).containsExactly(1L);
+        assertThat(employeeService.searchEmployees("replica", 10)).isEmpty();
+    }
+
+    private static void insert(JdbcTemplate database, long id, String email) {
+        database.update("insert into employees (id, first_name, last_name, email) values (?, ?, ?, ?)",
+                id, "Jashobanta", "Patra", email);
+    }
+}
@@ -0,0 +1,113 @@
+package com.jp.springboot.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    // Junit test for tryAcquire method at the limit
+    @DisplayName("Junit test for tryAcquire method at the limit")
+    @Test
+    public void givenLimitInFlight_whenTryAcquire_thenReject(){
+        // given - precondition or setup
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.9);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire(0);
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire(0);
+
+        // when - action or the behaviour that we are going test
+
+        AdaptiveConcurrencyLimiter.Permit rejected = limiter.tryAcquire(0);
+        first.release(5 * MILLIS, false);
+        AdaptiveConcurrencyLimiter.Permit afterRelease = limiter.tryAcquire(5 * MILLIS);
+
+        // then - verify the output
+        assertThat(second).isNotNull();
+        assertThat(rejected).isNull();
+        assertThat(afterRelease).isNotNull();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    // Junit test for the limit with steady latency
+    @DisplayName("Junit test for the limit with steady latency")
+    @Test
+    public void givenFullyUsedLimitAndSteadyLatency_whenRelease_thenLimitGrows(){
+        // given - precondition or setup
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.9);
+
+        // when - action or the behaviour that we are going test
+
+        long now = 0;
+        for (int round = 0; round < 5; round++) {
+            now = runRound(limiter, limiter.getLimit(), now, 5 * MILLIS);
+        }
+
+        // then - verify the output
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    // Junit test for the limit once latency climbs
+    @DisplayName("Junit test for the limit once latency climbs")
+    @Test
+    public void givenLatencyAboveTolerance_whenRelease_thenLimitBacksOffOncePerRoundTrip(){
+        // given - precondition or setup
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 2.0, 0.5);
+        long now = 0;
+        // unloaded, teaches the limiter a 5 ms baseline
+        for (int i = 0; i < 50; i++) {
+            now = runRound(limiter, 1, now, 5 * MILLIS);
+        }
+        int limitBefore = limiter.getLimit();
+
+        // when - action or the behaviour that we are going test
+
+        now = runRound(limiter, limitBefore, now, 50 * MILLIS);
+        int afterOneRoundTrip = limiter.getLimit();
+        runRound(limiter, afterOneRoundTrip, now, 50 * MILLIS);
+
+        // then - verify the output
+        assertThat(afterOneRoundTrip).isEqualTo(limitBefore / 2);
+        assertThat(limiter.getLimit()).isEqualTo(limitBefore / 4);
+    }
+
+    // Junit test for the limit with failing requests
+    @DisplayName("Junit test for the limit with failing requests")
+    @Test
+    public void givenDroppedRequests_whenRelease_thenLimitStopsAtMinimum(){
+        // given - precondition or setup
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0, 0.5);
+
+        // when - action or the behaviour that we are going test
+
+        long now = 0;
+        for (int round = 0; round < 10; round++) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(now);
+            now += 5 * MILLIS;
+            permit.release(now, true);
+        }
+
+        // then - verify the output
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    // starts requests concurrently, they all complete after the given latency
+    private static long runRound(AdaptiveConcurrencyLimiter limiter, int requests, long now, long latency) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            permits.add(limiter.tryAcquire(now));
+        }
+        permits.forEach(permit -> permit.release(now + latency, false));
+        return now + latency;
+    }
+}
@@ -0,0 +1,62 @@
+package com.jp.springboot.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, 0.9);
+
+    private final AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, 0.9);
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimiter, writeLimiter);
+
+    // Junit test for the filter with the read limit reached
+    @DisplayName("Junit test for the filter with the read limit reached")
+    @Test
+    public void givenReadLimitReached_whenGet_thenReturn503WithRetryAfter() throws Exception {
+        // given - precondition or setup
+
+        AdaptiveConcurrencyLimiter.Permit busy = readLimiter.tryAcquire(System.nanoTime());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when - action or the behaviour that we are going test
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), response, chain);
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getContentAsString()).isEqualTo(ConcurrencyLimitFilter.REJECTED_MESSAGE);
+        assertThat(chain.getRequest()).isNull();
+        busy.release(System.nanoTime(), false);
+    }
+
+    // Junit test for the filter with the read limit reached and a write coming in
+    @DisplayName("Junit test for the filter with the read limit reached and a write coming in")
+    @Test
+    public void givenReadLimitReached_whenPost_thenWriteGoesThroughAndReleasesPermit() throws Exception {
+        // given - precondition or setup
+
+        AdaptiveConcurrencyLimiter.Permit busy = readLimiter.tryAcquire(System.nanoTime());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when - action or the behaviour that we are going test
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), response, chain);
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(writeLimiter.getInFlight()).isZero();
+        busy.release(System.nanoTime(), false);
+    }
+}
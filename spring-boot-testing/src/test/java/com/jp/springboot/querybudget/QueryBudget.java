@@ -0,0 +1,26 @@
+package com.jp.springboot.querybudget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL a test may issue, counted on the threads of the test from its
+ * start, or from {@link QueryBudgetExtension#startCounting()} so that setting
+ * up test data is not part of the budget. A test over budget fails with the
+ * statements it ran.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    // JDBC statements Hibernate prepared, selects and writes alike
+    int statements();
+
+    // entities Hibernate loaded from the database, lazy loads and merge selects included
+    int entityLoads() default 0;
+}
@@ -0,0 +1,103 @@
+package com.jp.springboot.querybudget;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks {@link QueryBudget} annotated tests. Statements and entity loads are
+ * reported by {@link QueryBudgetHooks} and counted per thread: the test thread
+ * and the threads it starts, such as the workers of an executor it creates,
+ * count for the test. Scheduled jobs, event listeners and pools started before
+ * the test run on threads of their own and are not charged to it. A failure
+ * shows the statements with the thread that ran them.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    // inherited by threads created while the test runs, their statements are the test's
+    private static final InheritableThreadLocal<Counting> COUNTING = new InheritableThreadLocal<>();
+
+    /**
+     * Drops everything counted so far in the running test, call it once the
+     * test data is in place.
+     */
+    public static void startCounting() {
+        Counting counting = COUNTING.get();
+        if (counting == null || counting.closed) {
+            throw new IllegalStateException("startCounting() needs a test annotated with @QueryBudget");
+        }
+        counting.reset();
+    }
+
+    static void statementPrepared(String sql) {
+        Counting counting = COUNTING.get();
+        if (counting != null && !counting.closed) {
+            counting.statements.incrementAndGet();
+            counting.sql.add("[" + Thread.currentThread().getName() + "] " + sql);
+        }
+    }
+
+    static void entityLoaded() {
+        Counting counting = COUNTING.get();
+        if (counting != null && !counting.closed) {
+            counting.entityLoads.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (!QueryBudgetHooks.installed) {
+            throw new IllegalStateException("@QueryBudget needs QueryBudgetHooks, configured in the test hibernate.properties");
+        }
+        COUNTING.set(new Counting());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Counting counting = COUNTING.get();
+        COUNTING.remove();
+        // threads the test started may outlive it, they stop counting here
+        counting.closed = true;
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        long statements = counting.statements.get();
+        long entityLoads = counting.entityLoads.get();
+        if (statements > budget.statements() || entityLoads > budget.entityLoads()) {
+            StringBuilder message = new StringBuilder(String.format(
+                    "Query budget exceeded: %d statements (budget %d), %d entity loads (budget %d)",
+                    statements, budget.statements(), entityLoads, budget.entityLoads()));
+            counting.sql().forEach(sql -> message.append(System.lineSeparator()).append("  ").append(sql));
+            throw new AssertionError(message);
+        }
+    }
+
+    private static class Counting {
+
+        private final AtomicLong statements = new AtomicLong();
+
+        private final AtomicLong entityLoads = new AtomicLong();
+
+        private final List<String> sql = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean closed;
+
+        void reset() {
+            statements.set(0);
+            entityLoads.set(0);
+            sql.clear();
+        }
+
+        List<String> sql() {
+            synchronized (sql) {
+                return List.copyOf(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.jp.springboot.querybudget;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Reports what Hibernate does to {@link QueryBudgetExtension}, which charges
+ * it to the test of the calling thread. Installed on the test classpath only:
+ * as statement inspector through hibernate.properties, and as integrator
+ * through META-INF/services, which registers the entity load listener.
+ */
+public class QueryBudgetHooks implements StatementInspector, Integrator {
+
+    // set once Hibernate created the inspector, budgets are meaningless without it
+    static volatile boolean installed;
+
+    public QueryBudgetHooks() {
+        installed = true;
+    }
+
+    // called for every statement Hibernate prepares, the SQL is returned as it is
+    @Override
+    public String inspect(String sql) {
+        QueryBudgetExtension.statementPrepared(sql);
+        return sql;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, event -> QueryBudgetExtension.entityLoaded());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
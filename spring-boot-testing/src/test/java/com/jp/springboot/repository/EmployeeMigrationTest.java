@@ -0,0 +1,103 @@
+package com.jp.springboot.repository;
+
+import com.jp.springboot.model.Employee;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against a database whose employees table was created by
+ * hibernate.ddl-auto, without the unique email constraint, and is baselined at V1.
+ * Each test runs on its own embedded database.
+ */
+public class EmployeeMigrationTest {
+
+    // Junit test for the unique email migration with duplicate emails
+    @DisplayName("Junit test for the unique email migration with duplicate emails")
+    @Test
+    public void givenDuplicateEmails_whenMigrate_thenFailListingThem(){
+        // given - precondition or setup
+
+        DataSource dataSource = dataSource("migration-duplicates");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        createLegacyTable(jdbcTemplate);
+        insertEmployee(jdbcTemplate, "jashobanta@gmail.com");
+        insertEmployee(jdbcTemplate, "jashobanta@gmail.com");
+        insertEmployee(jdbcTemplate, "anuradha@gmail.com");
+
+        // when - action or the behaviour that we are going test
+
+        FlywayException exception = Assertions.assertThrows(FlywayException.class, () -> flyway(dataSource).migrate());
+
+        // then - verify the output
+        assertThat(exception).hasStackTraceContaining("jashobanta@gmail.com (2 rows)");
+        assertThat(exception).hasStackTraceContaining(Employee.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
+    // Junit test for the unique email migration
+    @DisplayName("Junit test for the unique email migration")
+    @Test
+    public void givenDistinctEmails_whenMigrate_thenDuplicatesAreRefused(){
+        // given - precondition or setup
+
+        DataSource dataSource = dataSource("migration-distinct");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        createLegacyTable(jdbcTemplate);
+        insertEmployee(jdbcTemplate, "jashobanta@gmail.com");
+
+        // when - action or the behaviour that we are going test
+
+        flyway(dataSource).migrate();
+
+        // then - verify the output
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> insertEmployee(jdbcTemplate, "jashobanta@gmail.com"));
+    }
+
+    // Junit test for the unique email migration with a unique index spanning email and another column
+    @DisplayName("Junit test for the unique email migration with a unique index spanning email and another column")
+    @Test
+    public void givenCompositeUniqueIndexOnEmail_whenMigrate_thenDuplicatesAreRefused(){
+        // given - precondition or setup
+
+        DataSource dataSource = dataSource("migration-composite");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        createLegacyTable(jdbcTemplate);
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_employees_email_last_name ON employees (email, last_name)");
+
+        // when - action or the behaviour that we are going test
+
+        flyway(dataSource).migrate();
+
+        // then - verify the output
+        insertEmployee(jdbcTemplate, "jashobanta@gmail.com");
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into employees (first_name, last_name, email) values ('Anuradha', 'Behura', 'jashobanta@gmail.com')"));
+    }
+
+    private static DataSource dataSource(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    // as the application does it, an existing schema is taken to be V1
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load();
+    }
+
+    private static void createLegacyTable(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT NOT NULL AUTO_INCREMENT, first_name VARCHAR(255) NOT NULL, "
+                + "last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+    }
+
+    private static void insertEmployee(JdbcTemplate jdbcTemplate, String email) {
+        jdbcTemplate.update("insert into employees (first_name, last_name, email) values ('Jashobanta', 'Patra', ?)", email);
+    }
+}
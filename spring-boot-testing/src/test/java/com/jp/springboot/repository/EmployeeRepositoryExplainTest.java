@@ -0,0 +1,121 @@
+package com.jp.springboot.repository;
+
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.model.EmployeeTombstone;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the query plans of the name and email lookups and the delta sync, so a dropped or
+ * renamed index fails the build instead of turning into a full table scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class EmployeeRepositoryExplainTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp(){
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + (i % 50))
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+    }
+
+    // Junit test for the query plan of the first/last name lookup
+    @DisplayName("Junit test for the query plan of the first/last name lookup")
+    @Test
+    public void givenFirstNameAndLastName_whenExplain_thenUseNameIndex(){
+        // when - action or the behaviour that we are going test
+
+        String index = usedIndex("select * from employees e where e.first_name = 'First7' and e.last_name = 'Last7'");
+
+        // then - verify the output
+        assertThat(index).contains(Employee.NAME_INDEX);
+    }
+
+    // Junit test for the query plan of the last-name prefix search
+    @DisplayName("Junit test for the query plan of the last-name prefix search")
+    @Test
+    public void givenLastNamePrefix_whenExplain_thenUseNameIndex(){
+        // when - action or the behaviour that we are going test
+
+        String index = usedIndex("select * from employees e where e.last_name like 'Last1%' " +
+                "order by e.last_name, e.first_name, e.id limit 21");
+
+        // then - verify the output
+        assertThat(index).contains(Employee.NAME_INDEX);
+    }
+
+    // Junit test for the query plan of the email lookup
+    @DisplayName("Junit test for the query plan of the email lookup")
+    @Test
+    public void givenEmail_whenExplain_thenUseUniqueEmailIndex(){
+        // when - action or the behaviour that we are going test
+
+        String index = usedIndex("select * from employees e where e.email = 'employee7@gmail.com'");
+
+        // then - verify the output
+        assertThat(index).contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
+    // Junit test for the query plan of the delta sync changes
+    @DisplayName("Junit test for the query plan of the delta sync changes")
+    @Test
+    public void givenDeltaToken_whenExplain_thenUseUpdatedAtIndex(){
+        // when - action or the behaviour that we are going test
+
+        String index = usedIndex("select * from employees e where e.updated_at >= timestamp '2024-01-01 00:00:00' " +
+                "and (e.updated_at > timestamp '2024-01-01 00:00:00' or e.id > 7) " +
+                "and e.updated_at < timestamp '2099-01-01 00:00:00' order by e.updated_at, e.id limit 21");
+
+        // then - verify the output
+        assertThat(index).contains(Employee.UPDATED_AT_INDEX);
+    }
+
+    // Junit test for the query plan of the delta sync deletes
+    @DisplayName("Junit test for the query plan of the delta sync deletes")
+    @Test
+    public void givenDeltaToken_whenExplain_thenUseDeletedAtIndex(){
+        // when - action or the behaviour that we are going test
+
+        String index = usedIndex("select * from employee_tombstones t where t.deleted_at >= timestamp '2024-01-01 00:00:00' " +
+                "and (t.deleted_at > timestamp '2024-01-01 00:00:00' or t.employee_id > 7) " +
+                "and t.deleted_at < timestamp '2099-01-01 00:00:00' order by t.deleted_at, t.employee_id limit 21");
+
+        // then - verify the output
+        assertThat(index).contains(EmployeeTombstone.DELETED_AT_INDEX);
+    }
+
+    // MySQL returns one row per table with the chosen index in the "key" column,
+    // H2 returns the plan as text with the index in a comment
+    private String usedIndex(String sql) {
+        List<?> plan = entityManager.createNativeQuery("explain " + sql).getResultList();
+        return plan.stream()
+                .map(row -> row instanceof Object[] columns ? String.valueOf(columns[6]) : String.valueOf(row))
+                .collect(Collectors.joining("\n"))
+                .toLowerCase();
+    }
+}
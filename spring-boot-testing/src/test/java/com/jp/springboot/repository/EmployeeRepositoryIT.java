@@ -1,6 +1,8 @@
 package com.jp.springboot.repository;
 
 import com.jp.springboot.model.Employee;
+import com.jp.springboot.querybudget.QueryBudget;
+import com.jp.springboot.querybudget.QueryBudgetExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -35,6 +37,7 @@ public class EmployeeRepositoryIT {
 
     //JUnit test for save employee operation
     @DisplayName("JUnit test for save employee operation")
+    @QueryBudget(statements = 1)
     @Test
     public void givenEmployeeObject_whenSave_thenReturnSavedEmployee(){
 
@@ -47,6 +50,8 @@ public class EmployeeRepositoryIT {
 
 
         // when - action or the behaviour that we are going test
+
+        QueryBudgetExtension.startCounting();
         Employee savedEmployee = employeeRepository.save(employee);
 
         // then - verify the output
@@ -57,6 +62,7 @@ public class EmployeeRepositoryIT {
 
     // Junit test for get all employees operation
     @DisplayName("Junit test for get all employees operation")
+    @QueryBudget(statements = 1)
     @Test
     public void givenEmployeeList_whenFindAll_thenEmployeeList(){
 
@@ -78,6 +84,8 @@ public class EmployeeRepositoryIT {
 
         // when - action or the behaviour that we are going test
 
+        QueryBudgetExtension.startCounting();
+
         List<Employee> employeeList=  employeeRepository.findAll();
 
         // then - verify the output
@@ -89,6 +97,7 @@ public class EmployeeRepositoryIT {
 
      // Junit test for get employee by id operation
      @DisplayName("Junit test for get employee by id operation")
+     @QueryBudget(statements = 0)
      @Test
      public void givenEmployeeObject_whenFindById_thenEmployeeObject(){
 
@@ -103,8 +112,12 @@ public class EmployeeRepositoryIT {
          Employee savedEmployee = employeeRepository.save(employee);
          // when - action or the behaviour that we are going test
 
+         QueryBudgetExtension.startCounting();
+         // still in the persistence context of the test transaction, no select needed
 
          Employee employeeDb =  employeeRepository.findById(savedEmployee.getId()).get();
+         // nothing changed, so the flush has nothing to write either
+         employeeRepository.flush();
 
          // then - verify the output
          assertThat(employeeDb).isNotNull();
@@ -112,6 +125,7 @@ public class EmployeeRepositoryIT {
      }
       // Junit test for get employee by email operation
       @DisplayName("Junit test for get employee by email operation")
+      @QueryBudget(statements = 1)
       @Test
       public void givenEmployeeEmail_whenFindByEmail_thenEmployeeObject(){
 
@@ -127,6 +141,8 @@ public class EmployeeRepositoryIT {
 
           // when - action or the behaviour that we are going test
 
+          QueryBudgetExtension.startCounting();
+
           Employee  employeeDb=  employeeRepository.findByEmail(employee.getEmail()).get();
 
           // then - verify the output
@@ -136,6 +152,7 @@ public class EmployeeRepositoryIT {
       }
     // Junit test for update employee operation
     @DisplayName("Junit test for update employee operation")
+   @QueryBudget(statements = 1)
    @Test
    public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee(){
         // given - precondition or setup
@@ -150,10 +167,14 @@ public class EmployeeRepositoryIT {
 
        // when - action or the behaviour that we are going test
 
+       QueryBudgetExtension.startCounting();
+       // found in the persistence context, flushed as a single update
+
        Employee savedEmployee = employeeRepository.findById(employee.getId()).get();
        savedEmployee.setEmail("jashobantapatra@gmail.com");
        savedEmployee.setFirstName("Jashobanta");
        Employee updatedEmployee = employeeRepository.save(savedEmployee);
+       employeeRepository.flush();
 
        // then - verify the output
 
@@ -162,6 +183,7 @@ public class EmployeeRepositoryIT {
    }
  // Junit test for delete employee operation
     @DisplayName("Junit test for delete employee operation")
+     @QueryBudget(statements = 1)
      @Test
      public void givenEmployeeObject_whenDelete_thenRemoveEmployee(){
          // given - precondition or setup
@@ -176,8 +198,12 @@ public class EmployeeRepositoryIT {
 
          // when - action or the behaviour that we are going test
 
+         QueryBudgetExtension.startCounting();
+         // found in the persistence context, removed there as well, flushed as a single delete
+
          employeeRepository.deleteById(employee.getId());
          Optional<Employee> employeeOptional = employeeRepository.findById(employee.getId());
+         employeeRepository.flush();
 
          // then - verify the output
 
@@ -186,6 +212,7 @@ public class EmployeeRepositoryIT {
      }
       // Junit test for custom query using JPQL with index
     @DisplayName("Junit test for custom query using JPQL with index")
+      @QueryBudget(statements = 1)
       @Test
       public void givenFirstNameAndLastName_whenFindByJPQL_thenReturnEmployeeObject(){
       // given - precondition or setup
@@ -199,13 +226,16 @@ public class EmployeeRepositoryIT {
           String firstName="Jashobanta";
           String lastName="Patra";
       // when - action or the behaviour that we are going test
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName,lastName);
+
+      QueryBudgetExtension.startCounting();
+        List<Employee> savedEmployees = employeeRepository.findByJPQL(firstName,lastName);
       // then - verify the output
-          assertThat(savedEmployee).isNotNull();
+          assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
       }
    // Junit test for custom query using JPQL with Named params
    @DisplayName("Junit test for custom query using JPQL with Named params")
+   @QueryBudget(statements = 1)
    @Test
    public void givenFirstNameAndLastName_whenFindByJPQLNamedParams_thenReturnEmployeeObject(){
    // given - precondition or setup
@@ -222,16 +252,19 @@ public class EmployeeRepositoryIT {
 
    // when - action or the behaviour that we are going test
 
-       Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName,lastName);
+   QueryBudgetExtension.startCounting();
+
+       List<Employee> savedEmployees = employeeRepository.findByJPQLNamedParams(firstName,lastName);
 
        // then - verify the output
 
-       assertThat(savedEmployee).isNotNull();
+       assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
    }
 
     // Junit test for custom query using native SQL with index
     @DisplayName("Junit test for custom query using native SQL with index")
+        @QueryBudget(statements = 1)
         @Test
         public void givenFirstNameAndLastName_whenFindByNativeSQL_thenReturnEmployeeObject(){
             // given - precondition or setup
@@ -247,15 +280,18 @@ public class EmployeeRepositoryIT {
 
             // when - action or the behaviour that we are going test
 
-            Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(),employee.getLastName());
+            QueryBudgetExtension.startCounting();
+
+            List<Employee> savedEmployees = employeeRepository.findByNativeSQL(employee.getFirstName(),employee.getLastName());
 
             // then - verify the output
 
-            assertThat(savedEmployee).isNotNull();
+            assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
         }
     // Junit test for custom query using native SQL with params
     @DisplayName("Junit test for custom query using native SQL with params")
+    @QueryBudget(statements = 1)
     @Test
     public void givenFirstNameAndLastName_whenFindByNativeSQLNamedParams_thenReturnEmployeeObject(){
         // given - precondition or setup
@@ -271,11 +307,13 @@ public class EmployeeRepositoryIT {
 
         // when - action or the behaviour that we are going test
 
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamed(employee.getFirstName(),employee.getLastName());
+        QueryBudgetExtension.startCounting();
+
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamed(employee.getFirstName(),employee.getLastName());
 
         // then - verify the output
 
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
     }
 }
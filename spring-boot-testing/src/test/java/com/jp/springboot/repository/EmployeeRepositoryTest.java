@@ -3,13 +3,19 @@ package com.jp.springboot.repository;
 import com.jp.springboot.model.Employee;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -85,6 +91,108 @@ public class EmployeeRepositoryTest {
 
     }
 
+    // Junit test for keyset pagination operation
+    @DisplayName("Junit test for keyset pagination operation")
+    @Test
+    public void givenEmployeeList_whenFindByIdGreaterThan_thenReturnNextSlice(){
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Behura")
+                .email("anuradha@gmail.com")
+                .build();
+
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when - action or the behaviour that we are going test
+
+        Slice<Employee> firstPage = employeeRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1, Sort.by("id")));
+        Slice<Employee> secondPage = employeeRepository.findByIdGreaterThan(
+                firstPage.getContent().get(0).getId(), PageRequest.of(0, 1, Sort.by("id")));
+
+        // then - verify the output
+
+        assertThat(firstPage.getContent()).extracting(Employee::getEmail).containsExactly(employee.getEmail());
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent()).extracting(Employee::getEmail).containsExactly(employee1.getEmail());
+        assertThat(secondPage.hasNext()).isFalse();
+
+    }
+
+    // Junit test for batch insert operation
+    @DisplayName("Junit test for batch insert operation")
+    @Test
+    public void givenEmployeeList_whenBatchInsert_thenEmployeesHaveGeneratedIds(){
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Behura")
+                .email("anuradha@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+
+        employeeRepository.batchInsert(List.of(employee, employee1));
+        List<String> existingEmails = employeeRepository.findExistingEmails(
+                List.of(employee.getEmail(), employee1.getEmail(), "unknown@gmail.com"));
+
+        // then - verify the output
+
+        assertThat(employee.getId()).isGreaterThan(0);
+        assertThat(employee1.getId()).isGreaterThan(employee.getId());
+        assertThat(existingEmails).containsExactlyInAnyOrder(employee.getEmail(), employee1.getEmail());
+
+    }
+
+    // Junit test for batch insert operation failing in a later chunk
+    @DisplayName("Junit test for batch insert operation failing in a later chunk")
+    @Test
+    public void givenInvalidEmployeeInSecondChunk_whenBatchInsert_thenNoEmployeeHasAnId(){
+
+        // given - precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EmployeeRepositoryCustomImpl.BATCH_SIZE; i++) {
+            employees.add(Employee.builder()
+                    .firstName("Employee" + i)
+                    .lastName("Patra")
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        employees.add(Employee.builder()
+                .lastName("Patra")
+                .email("nofirstname@gmail.com")
+                .build());
+
+        // when - action or the behaviour that we are going test
+
+        Assertions.assertThrows(DataAccessException.class, () -> employeeRepository.batchInsert(employees));
+
+        // then - verify the output
+
+        assertThat(employees).extracting(Employee::getId).containsOnly(0L);
+
+    }
+
+    // Junit test for lockExistingIds operation
+    @DisplayName("Junit test for lockExistingIds operation")
+    @Test
+    public void givenKnownAndUnknownIds_whenLockExistingIds_thenReturnKnownIds(){
+        // given - precondition or setup
+
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+
+        List<Long> existingIds = employeeRepository.lockExistingIds(List.of(employee.getId(), employee.getId() + 1000));
+
+        // then - verify the output
+
+        assertThat(existingIds).containsExactly(employee.getId());
+    }
+
      // Junit test for get employee by id operation
      @DisplayName("Junit test for get employee by id operation")
      @Test
@@ -158,6 +266,50 @@ public class EmployeeRepositoryTest {
         assertThat(updatedEmployee.getEmail()).isEqualTo("jashobantapatra@gmail.com");
         assertThat(updatedEmployee.getFirstName()).isEqualTo("Jashobanta");
    }
+    // Junit test for patch employee operation
+    @DisplayName("Junit test for patch employee operation")
+    @Test
+    public void givenEmployeeObject_whenPatchEmployee_thenOnlyGivenColumnsChange(){
+        // given - precondition or setup
+
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+
+        int updated = employeeRepository.patchEmployee(employee.getId(), null, null, null, "jashobantapatra@gmail.com");
+        int missing = employeeRepository.patchEmployee(employee.getId() + 1, null, "Jasho", null, null);
+        Employee patchedEmployee = employeeRepository.findById(employee.getId()).get();
+
+        // then - verify the output
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isEqualTo(0);
+        assertThat(patchedEmployee.getEmail()).isEqualTo("jashobantapatra@gmail.com");
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Jashobanta");
+    }
+
+    // Junit test for patch employee operation with an expected version
+    @DisplayName("Junit test for patch employee operation with an expected version")
+    @Test
+    public void givenExpectedVersion_whenPatchEmployee_thenOnlyThatVersionIsPatched(){
+        // given - precondition or setup
+
+        employeeRepository.save(employee);
+        long version = employee.getVersion();
+
+        // when - action or the behaviour that we are going test
+
+        int updated = employeeRepository.patchEmployee(employee.getId(), version, "Jasho", null, null);
+        int stale = employeeRepository.patchEmployee(employee.getId(), version, "Jashobanta", null, null);
+        Employee patchedEmployee = employeeRepository.findById(employee.getId()).get();
+
+        // then - verify the output
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isEqualTo(0);
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Jasho");
+        assertThat(patchedEmployee.getVersion()).isEqualTo(version + 1);
+    }
  // Junit test for delete employee operation
     @DisplayName("Junit test for delete employee operation")
      @Test
@@ -182,6 +334,98 @@ public class EmployeeRepositoryTest {
          assertThat(employeeOptional).isEmpty();
 
      }
+    // Junit test for bulk delete and update operations
+    @DisplayName("Junit test for bulk delete and update operations")
+    @Test
+    public void givenEmployeeList_whenBulkDeleteAndUpdate_thenReturnAffectedCounts(){
+        // given - precondition or setup
+
+        Employee employee1 = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Behura")
+                .email("anuradha@yahoo.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Jasho")
+                .lastName("Patra")
+                .email("jasho@yahoo.com")
+                .build();
+        Employee employee3 = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@mail.com")
+                .build();
+        employeeRepository.saveAll(List.of(employee, employee1, employee2, employee3));
+
+        // when - action or the behaviour that we are going test
+
+        int renamed = employeeRepository.updateEmailDomain("yahoo.com", 9, "gmail.com");
+        int deletedByLastName = employeeRepository.deleteEmployeesByLastName("Patra");
+        int deletedByDomain = employeeRepository.deleteEmployeesByEmailDomain("gmail.com");
+        int deletedById = employeeRepository.deleteEmployeeById(employee3.getId());
+        int deletedAgain = employeeRepository.deleteEmployeeById(employee3.getId());
+
+        // then - verify the output
+
+        assertThat(renamed).isEqualTo(2);
+        assertThat(deletedByLastName).isEqualTo(2);
+        assertThat(deletedByDomain).isEqualTo(1);
+        assertThat(deletedById).isEqualTo(1);
+        assertThat(deletedAgain).isEqualTo(0);
+        assertThat(employeeRepository.findAll()).isEmpty();
+    }
+
+    // Junit test for updateEmailDomain operation with an '@' in the local part
+    @DisplayName("Junit test for updateEmailDomain operation with an '@' in the local part")
+    @Test
+    public void givenQuotedLocalPartWithAt_whenUpdateEmailDomain_thenOnlyDomainIsReplaced(){
+        // given - precondition or setup
+
+        employee.setEmail("\"jasho@home\"@yahoo.com");
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+
+        int renamed = employeeRepository.updateEmailDomain("yahoo.com", 9, "gmail.com");
+
+        // then - verify the output
+
+        assertThat(renamed).isEqualTo(1);
+        assertThat(employeeRepository.findById(employee.getId())).get()
+                .extracting(Employee::getEmail).isEqualTo("\"jasho@home\"@gmail.com");
+    }
+
+    // Junit test for last-name prefix search operation
+    @DisplayName("Junit test for last-name prefix search operation")
+    @Test
+    public void givenEmployeeList_whenSearchByLastNamePrefix_thenReturnMatchesInNameOrder(){
+        // given - precondition or setup
+
+        Employee employee1 = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Patnaik")
+                .email("anuradha@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build();
+        employeeRepository.saveAll(List.of(employee, employee1, employee2));
+
+        // when - action or the behaviour that we are going test
+
+        Slice<Employee> byLastName = employeeRepository.searchByLastNamePrefix("Pat%", PageRequest.of(0, 10));
+        Slice<Employee> byFullName = employeeRepository.searchByLastNameAndFirstNamePrefix("Patra", "Jas%", PageRequest.of(0, 10));
+
+        // then - verify the output
+
+        assertThat(byLastName.getContent()).extracting(Employee::getEmail)
+                .containsExactly(employee1.getEmail(), employee.getEmail());
+        assertThat(byFullName.getContent()).extracting(Employee::getEmail)
+                .containsExactly(employee.getEmail());
+    }
+
       // Junit test for custom query using JPQL with index
     @DisplayName("Junit test for custom query using JPQL with index")
       @Test
@@ -197,9 +441,9 @@ public class EmployeeRepositoryTest {
           String firstName="Jashobanta";
           String lastName="Patra";
       // when - action or the behaviour that we are going test
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName,lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQL(firstName,lastName);
       // then - verify the output
-          assertThat(savedEmployee).isNotNull();
+          assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
       }
    // Junit test for custom query using JPQL with Named params
@@ -220,11 +464,11 @@ public class EmployeeRepositoryTest {
 
    // when - action or the behaviour that we are going test
 
-       Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName,lastName);
+       List<Employee> savedEmployees = employeeRepository.findByJPQLNamedParams(firstName,lastName);
 
        // then - verify the output
 
-       assertThat(savedEmployee).isNotNull();
+       assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
    }
 
@@ -245,12 +489,12 @@ public class EmployeeRepositoryTest {
 
             // when - action or the behaviour that we are going test
 
-            Employee savedEmployee = employeeRepository.
+            List<Employee> savedEmployees = employeeRepository.
                     findByNativeSQL(employee.getFirstName(),employee.getLastName());
 
             // then - verify the output
 
-            assertThat(savedEmployee).isNotNull();
+            assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
         }
     // Junit test for custom query using native SQL with params
@@ -270,12 +514,12 @@ public class EmployeeRepositoryTest {
 
         // when - action or the behaviour that we are going test
 
-        Employee savedEmployee = employeeRepository
+        List<Employee> savedEmployees = employeeRepository
                 .findByNativeSQLNamed(employee.getFirstName(),employee.getLastName());
 
         // then - verify the output
 
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).extracting(Employee::getEmail).contains(employee.getEmail());
 
     }
 }
@@ -0,0 +1,74 @@
+package com.jp.springboot.repository;
+
+import com.jp.springboot.config.MetricsConfig;
+import com.jp.springboot.model.Employee;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class RepositoryResultSizeAspectTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmployeeRepository advisedRepository;
+
+    @BeforeEach
+    public void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(employeeRepository);
+        proxyFactory.addAspect(new RepositoryResultSizeAspect(meterRegistry));
+        advisedRepository = proxyFactory.getProxy();
+    }
+
+    // Junit test for recordResultSize method
+    @DisplayName("Junit test for recordResultSize method")
+    @Test
+    public void givenListResult_whenFindAll_thenRecordResultSize(){
+        // given - precondition or setup
+
+        given(employeeRepository.findAll()).willReturn(List.of(
+                Employee.builder().id(1L).firstName("Jashobanta").lastName("Patra").email("jashobanta@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build()));
+
+        // when - action or the behaviour that we are going test
+
+        advisedRepository.findAll();
+
+        // then - verify the output
+        DistributionSummary summary = meterRegistry.get(MetricsConfig.REPOSITORY_RESULTS).tag("method", "findAll").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+    }
+
+    // Junit test for recordResultSize method with a single result
+    @DisplayName("Junit test for recordResultSize method with a single result")
+    @Test
+    public void givenOptionalResult_whenFindByEmail_thenRecordNothing(){
+        // given - precondition or setup
+
+        given(employeeRepository.findByEmail("jashobanta@gmail.com")).willReturn(Optional.empty());
+
+        // when - action or the behaviour that we are going test
+
+        advisedRepository.findByEmail("jashobanta@gmail.com");
+
+        // then - verify the output
+        assertThat(meterRegistry.find(MetricsConfig.REPOSITORY_RESULTS).summary()).isNull();
+    }
+}
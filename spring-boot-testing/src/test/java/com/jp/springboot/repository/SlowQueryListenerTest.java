@@ -0,0 +1,150 @@
+package com.jp.springboot.repository;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.JdbcProxyFactory;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class SlowQueryListenerTest {
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SlowQueryListener slowQueryListener;
+
+    private ListAppender<ILoggingEvent> logged;
+
+    @BeforeEach
+    public void setup(){
+        slowQueryListener = new SlowQueryListener(Duration.ofMillis(100), 0.0);
+        logged = new ListAppender<>();
+        logged.start();
+        ((Logger) LoggerFactory.getLogger(SlowQueryListener.class)).addAppender(logged);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        ((Logger) LoggerFactory.getLogger(SlowQueryListener.class)).detachAppender(logged);
+    }
+
+    // Junit test for afterQuery method
+    @DisplayName("Junit test for afterQuery method")
+    @Test
+    public void givenSlowBatchUpdate_whenAfterQuery_thenLogRowsAndParameterTypes() throws Exception {
+        // given - precondition or setup
+
+        ExecutionInfo execInfo = execution(150, new int[]{1, 1});
+        execInfo.setBatch(true);
+        execInfo.setBatchSize(2);
+        QueryInfo queryInfo = new QueryInfo("insert into employees (first_name, last_name, email) values (?, ?, ?)");
+        queryInfo.setParametersList(List.of(List.of(
+                parameter("setString", 2, "Patra"),
+                parameter("setString", 1, "Jashobanta"),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class), new Object[]{3, 12}))));
+
+        // when - action or the behaviour that we are going test
+
+        slowQueryListener.afterQuery(execInfo, List.of(queryInfo));
+
+        // then - verify the output
+        assertThat(logged.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "slow query 150 ms, 2 rows, batch of 2, -: insert into employees (first_name, last_name, email) values (?, ?, ?) (String, String, null)");
+    }
+
+    // Junit test for afterQuery method with more than nine parameters
+    @DisplayName("Junit test for afterQuery method with more than nine parameters")
+    @Test
+    public void givenSlowStatementWithElevenParameters_whenAfterQuery_thenParameterTypesInIndexOrder() throws Exception {
+        // given - precondition or setup
+
+        List<ParameterSetOperation> parameters = new ArrayList<>();
+        for (int index = 11; index >= 1; index--) {
+            parameters.add(index < 10
+                    ? parameter("setString", index, "Jashobanta")
+                    : new ParameterSetOperation(PreparedStatement.class.getMethod("setLong", int.class, long.class), new Object[]{index, 1L}));
+        }
+        QueryInfo queryInfo = new QueryInfo("select * from employees where first_name in (?, ?, ?, ?, ?, ?, ?, ?, ?) and id in (?, ?)");
+        queryInfo.setParametersList(List.of(parameters));
+
+        // when - action or the behaviour that we are going test
+
+        String shape = SlowQueryListener.parameterShape(List.of(queryInfo));
+
+        // then - verify the output
+        assertThat(shape).isEqualTo("(String, String, String, String, String, String, String, String, String, Long, Long)");
+    }
+
+    // Junit test for afterQuery method with a fast statement
+    @DisplayName("Junit test for afterQuery method with a fast statement")
+    @Test
+    public void givenFastStatementAndNoSampling_whenAfterQuery_thenLogNothing(){
+        // given - precondition or setup
+
+        ExecutionInfo execInfo = execution(5, 1);
+
+        // when - action or the behaviour that we are going test
+
+        slowQueryListener.afterQuery(execInfo, List.of(new QueryInfo("delete from employees where id=?")));
+
+        // then - verify the output
+        assertThat(logged.list).isEmpty();
+    }
+
+    // Junit test for afterQuery method with a select
+    @DisplayName("Junit test for afterQuery method with a select")
+    @Test
+    public void givenSlowSelect_whenResultSetClosed_thenLogRowsRead() throws Exception {
+        // given - precondition or setup
+
+        given(resultSet.next()).willReturn(true, true, false);
+        ProxyConfig proxyConfig = ProxyConfig.Builder.create().resultSetProxyLogicFactory(slowQueryListener).build();
+        ResultSet proxy = JdbcProxyFactory.DEFAULT.createResultSet(resultSet, new ConnectionInfo(), proxyConfig);
+
+        // when - action or the behaviour that we are going test
+
+        slowQueryListener.afterQuery(execution(120, proxy), List.of(new QueryInfo("select * from employees")));
+        List<ILoggingEvent> beforeClose = List.copyOf(logged.list);
+        while (proxy.next()) {
+        }
+        proxy.close();
+
+        // then - verify the output
+        assertThat(beforeClose).isEmpty();
+        assertThat(logged.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "slow query 120 ms, 2 rows, -: select * from employees ()");
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis, Object result) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMillis);
+        execInfo.setResult(result);
+        return execInfo;
+    }
+
+    private static ParameterSetOperation parameter(String setter, int index, String value) throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod(setter, int.class, String.class), new Object[]{index, value});
+    }
+}
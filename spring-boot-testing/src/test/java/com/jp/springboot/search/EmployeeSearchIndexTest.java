@@ -0,0 +1,110 @@
+package com.jp.springboot.search;
+
+import com.jp.springboot.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeSearchIndexTest {
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup(){
+        searchIndex = new EmployeeSearchIndex();
+        searchIndex.index(Employee.builder().id(1L).firstName("Jashobanta").lastName("Patra").email("jashobanta@gmail.com").build());
+        searchIndex.index(Employee.builder().id(2L).firstName("Anuradha").lastName("Behura").email("anuradha@gmail.com").build());
+        searchIndex.index(Employee.builder().id(3L).firstName("Ramesh").lastName("Jena").email("ramesh@yahoo.com").build());
+    }
+
+    // Junit test for search method
+    @DisplayName("Junit test for search method")
+    @Test
+    public void givenSubstring_whenSearch_thenReturnMatchingEmployees(){
+        // given - precondition or setup
+
+        // when - action or the behaviour that we are going test
+
+        List<Employee> employees = searchIndex.search("URA", 10);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(2L);
+    }
+
+    // Junit test for search method ranking
+    @DisplayName("Junit test for search method ranking")
+    @Test
+    public void givenPrefixAndInnerMatches_whenSearch_thenPrefixMatchesRankFirst(){
+        // given - precondition or setup
+
+        searchIndex.index(Employee.builder().id(4L).firstName("Sanjena").lastName("Das").email("sanjena@gmail.com").build());
+
+        // when - action or the behaviour that we are going test
+
+        List<Employee> employees = searchIndex.search("jena", 10);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(3L, 4L);
+    }
+
+    // Junit test for search method with a typo
+    @DisplayName("Junit test for search method with a typo")
+    @Test
+    public void givenMisspelledName_whenSearch_thenReturnFuzzyMatch(){
+        // given - precondition or setup
+
+        // when - action or the behaviour that we are going test
+
+        List<Employee> employees = searchIndex.search("jashobnta", 10);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(1L);
+    }
+
+    // Junit test for search method after changes
+    @DisplayName("Junit test for search method after changes")
+    @Test
+    public void givenPatchedAndRemovedEmployees_whenSearch_thenReturnCurrentState(){
+        // given - precondition or setup
+
+        searchIndex.patch(1L, null, "Mohanty", null);
+        searchIndex.remove(2L);
+
+        // when - action or the behaviour that we are going test
+
+        List<Employee> byOldName = searchIndex.search("patra", 10);
+        List<Employee> byNewName = searchIndex.search("mohan", 10);
+        List<Employee> removed = searchIndex.search("anuradha", 10);
+
+        // then - verify the output
+        assertThat(byOldName).isEmpty();
+        assertThat(byNewName).extracting(Employee::getFirstName).containsExactly("Jashobanta");
+        assertThat(removed).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    // Junit test for rebuild method
+    @DisplayName("Junit test for rebuild method")
+    @Test
+    public void givenChangeDuringRebuild_whenRebuild_thenChangeIsKept(){
+        // given - precondition or setup
+
+        Employee loaded = Employee.builder().id(5L).firstName("Sita").lastName("Rout").email("sita@gmail.com").build();
+        Employee createdMeanwhile = Employee.builder().id(6L).firstName("Gita").lastName("Sahu").email("gita@gmail.com").build();
+
+        // when - action or the behaviour that we are going test
+
+        searchIndex.rebuild(consumer -> {
+            consumer.accept(loaded);
+            searchIndex.index(createdMeanwhile);
+        });
+
+        // then - verify the output
+        assertThat(searchIndex.size()).isEqualTo(2);
+        assertThat(searchIndex.search("ita", 10)).extracting(Employee::getId).containsExactlyInAnyOrder(5L, 6L);
+    }
+}
@@ -0,0 +1,118 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.exception.ServiceUnavailableException;
+import com.jp.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncEmployeeServiceTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private AsyncEmployeeService asyncEmployeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        // a single worker and no queue, so a second concurrent call is rejected
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        asyncEmployeeService = new AsyncEmployeeServiceImpl(employeeService, executor, Duration.ofMillis(200));
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executor.shutdown();
+    }
+
+    // Junit test for getEmployeeById method
+    @DisplayName("Junit test for getEmployeeById method")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeById_thenCompleteWithEmployee() throws Exception {
+        // given - precondition or setup
+
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        // when - action or the behaviour that we are going test
+
+        CompletableFuture<Optional<Employee>> savedEmployee = asyncEmployeeService.getEmployeeById(1L);
+        // then - verify the output
+
+        assertThat(savedEmployee.get()).contains(employee);
+    }
+
+    // Junit test for getEmployeeById method on a saturated executor
+    @DisplayName("Junit test for getEmployeeById method on a saturated executor")
+    @Test
+    public void givenBusyExecutor_whenGetEmployeeById_thenFailWithServiceUnavailable() throws Exception {
+        // given - precondition or setup
+
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.getEmployeeById(1L)).willAnswer(invocation -> {
+            release.await();
+            return Optional.of(employee);
+        });
+        CompletableFuture<Optional<Employee>> running = asyncEmployeeService.getEmployeeById(1L);
+        // when - action or the behaviour that we are going test
+
+        CompletableFuture<Optional<Employee>> rejected = asyncEmployeeService.getEmployeeById(1L);
+        // then - verify the output
+
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ServiceUnavailableException.class);
+        release.countDown();
+        assertThat(running.get()).contains(employee);
+    }
+
+    // Junit test for getEmployeeById method timing out
+    @DisplayName("Junit test for getEmployeeById method timing out")
+    @Test
+    public void givenSlowEmployeeService_whenGetEmployeeById_thenFailWithServiceUnavailable(){
+        // given - precondition or setup
+
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.getEmployeeById(1L)).willAnswer(invocation -> {
+            release.await();
+            return Optional.of(employee);
+        });
+        // when - action or the behaviour that we are going test
+
+        CompletableFuture<Optional<Employee>> slow = asyncEmployeeService.getEmployeeById(1L);
+        // then - verify the output
+
+        assertThatThrownBy(slow::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ServiceUnavailableException.class);
+        release.countDown();
+    }
+}
@@ -0,0 +1,184 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.dto.EmployeeBatchResult;
+import com.jp.springboot.exception.ResourceNotFoundExceptiion;
+import com.jp.springboot.exception.ServiceUnavailableException;
+import com.jp.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeGroupCommitterTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private EmployeeGroupCommitter groupCommitter;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup(){
+        // a batch closes once all callers are in, long before the delay runs out
+        groupCommitter = new EmployeeGroupCommitter(employeeService, CALLERS, Duration.ofSeconds(10), 100, Duration.ofSeconds(10));
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        groupCommitter.destroy();
+    }
+
+    // Junit test for saveEmployee method with concurrent callers
+    @DisplayName("Junit test for saveEmployee method with concurrent callers")
+    @Test
+    public void givenConcurrentCreates_whenSaveEmployee_thenOneBatchWithResultPerCaller() throws Exception {
+        // given - precondition or setup
+
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            List<EmployeeBatchResult> results = new ArrayList<>();
+            for (int i = 0; i < employees.size(); i++) {
+                Employee employee = employees.get(i);
+                if (employee.getEmail().equals("taken@gmail.com")) {
+                    results.add(new EmployeeBatchResult(i, EmployeeBatchResult.Status.DUPLICATE_EMAIL, employee,
+                            "Employee already exist with given email:" + employee.getEmail()));
+                } else {
+                    employee.setId(100 + i);
+                    results.add(new EmployeeBatchResult(i, EmployeeBatchResult.Status.CREATED, employee, null));
+                }
+            }
+            return results;
+        });
+
+        // when - action or the behaviour that we are going test
+
+        List<Future<Employee>> created = new ArrayList<>();
+        for (int i = 0; i < CALLERS - 1; i++) {
+            String email = "employee" + i + "@gmail.com";
+            created.add(executor.submit(() -> groupCommitter.saveEmployee(employee(email))));
+        }
+        Future<Employee> duplicate = executor.submit(() -> groupCommitter.saveEmployee(employee("taken@gmail.com")));
+
+        // then - verify the output
+        for (int i = 0; i < CALLERS - 1; i++) {
+            Employee employee = created.get(i).get(10, TimeUnit.SECONDS);
+            assertThat(employee.getEmail()).isEqualTo("employee" + i + "@gmail.com");
+            assertThat(employee.getId()).isPositive();
+        }
+        assertThatThrownBy(() -> duplicate.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ResourceNotFoundExceptiion.class)
+                .hasMessageContaining("taken@gmail.com");
+        verify(employeeService, times(1)).saveEmployees(anyList());
+    }
+
+    // Junit test for saveEmployee method with a failing batch
+    @DisplayName("Junit test for saveEmployee method with a failing batch")
+    @Test
+    public void givenFailingBatch_whenSaveEmployee_thenEmployeesAreSavedOneByOne() throws Exception {
+        // given - precondition or setup
+
+        groupCommitter.destroy();
+        groupCommitter = new EmployeeGroupCommitter(employeeService, 2, Duration.ofSeconds(10), 100, Duration.ofSeconds(10));
+        given(employeeService.saveEmployees(anyList()))
+                .willThrow(new ResourceNotFoundExceptiion("Employee already exist with given email"));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("taken@gmail.com")) {
+                throw new DataIntegrityViolationException("uk_employees_email");
+            }
+            return employee;
+        });
+
+        // when - action or the behaviour that we are going test
+
+        Future<Employee> saved = executor.submit(() -> groupCommitter.saveEmployee(employee("jasho@gmail.com")));
+        Future<Employee> failed = executor.submit(() -> groupCommitter.saveEmployee(employee("taken@gmail.com")));
+
+        // then - verify the output
+        assertThat(saved.get(10, TimeUnit.SECONDS).getEmail()).isEqualTo("jasho@gmail.com");
+        assertThatThrownBy(() -> failed.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(employeeService, times(2)).saveEmployee(any(Employee.class));
+    }
+
+    // Junit test for saveEmployee method with a batch that does not commit in time
+    @DisplayName("Junit test for saveEmployee method with a batch that does not commit in time")
+    @Test
+    public void givenStuckBatch_whenSaveEmployee_thenCallerStopsWaitingAfterTimeout() throws Exception {
+        // given - precondition or setup
+
+        groupCommitter.destroy();
+        groupCommitter = new EmployeeGroupCommitter(employeeService, 1, Duration.ofSeconds(10), 100, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            release.await();
+            List<Employee> employees = invocation.getArgument(0);
+            return List.of(new EmployeeBatchResult(0, EmployeeBatchResult.Status.CREATED, employees.get(0), null));
+        });
+
+        // when - action or the behaviour that we are going test
+
+        try {
+            ServiceUnavailableException exception = Assertions.assertThrows(ServiceUnavailableException.class,
+                    () -> groupCommitter.saveEmployee(employee("jasho@gmail.com")));
+
+            // then - verify the output
+            assertThat(exception).hasMessageContaining("not saved within 100 ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    // Junit test for saveEmployee method after the writer thread died
+    @DisplayName("Junit test for saveEmployee method after the writer thread died")
+    @Test
+    public void givenWriterDies_whenSaveEmployee_thenCallersFailRightAway() throws Exception {
+        // given - precondition or setup
+
+        groupCommitter.destroy();
+        groupCommitter = new EmployeeGroupCommitter(employeeService, 1, Duration.ofSeconds(10), 100, Duration.ofSeconds(30));
+        given(employeeService.saveEmployees(anyList())).willThrow(new StackOverflowError());
+
+        // when - action or the behaviour that we are going test
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> groupCommitter.saveEmployee(employee("jasho@gmail.com")));
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> groupCommitter.saveEmployee(employee("anuradha@gmail.com")));
+
+        // then - verify the output
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        verify(employeeService, times(1)).saveEmployees(anyList());
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("Jashobanta").lastName("Patra").email(email).build();
+    }
+}
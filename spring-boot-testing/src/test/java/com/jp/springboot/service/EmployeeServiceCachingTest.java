@@ -0,0 +1,217 @@
+package com.jp.springboot.service;
+
+import com.jp.springboot.config.CacheConfig;
+import com.jp.springboot.model.Employee;
+import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.search.EmployeeSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = {EmployeeServiceImpl.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class EmployeeServiceCachingTest {
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+    @MockBean
+    private EntityManager entityManager;
+    @MockBean
+    private KnownEmailFilter knownEmailFilter;
+    @MockBean
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Jashobanta")
+                .lastName("Patra")
+                .email("jashobanta@gmail.com")
+                .build();
+    }
+
+    // Junit test for getEmployeeById method served from the cache
+    @DisplayName("Junit test for getEmployeeById method served from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenRepositoryIsCalledOnce(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        // when - action or the behaviour that we are going test
+
+        employeeService.getEmployeeById(employee.getId());
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(employee.getId());
+        // then - verify the output
+
+        assertThat(cachedEmployee).get().usingRecursiveComparison().isEqualTo(employee);
+        verify(employeeRepository, times(1)).findById(employee.getId());
+    }
+
+    // Junit test for getEmployeeById method caching a copy of the entity
+    @DisplayName("Junit test for getEmployeeById method caching a copy of the entity")
+    @Test
+    public void givenLoadedEntityChangesLater_whenGetEmployeeById_thenCachedEmployeeIsUnchanged(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(employee.getId());
+        // when - action or the behaviour that we are going test
+
+        // what a merge into the open persistence context does to the managed instance
+        employee.setFirstName("Jasho");
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(employee.getId());
+        // then - verify the output
+
+        assertThat(cachedEmployee).get().isNotSameAs(employee);
+        assertThat(cachedEmployee).get().extracting(Employee::getFirstName).isEqualTo("Jashobanta");
+    }
+
+    // Junit test for getEmployeeById method with an unknown id
+    @DisplayName("Junit test for getEmployeeById method with an unknown id")
+    @Test
+    public void givenUnknownEmployeeId_whenGetEmployeeById_thenNotFoundIsCached(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+        // when - action or the behaviour that we are going test
+
+        employeeService.getEmployeeById(2L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(2L);
+        // then - verify the output
+
+        assertThat(cachedEmployee).isEmpty();
+        verify(employeeRepository, times(1)).findById(2L);
+    }
+
+    // Junit test for updateEmployee method invalidating the cache
+    @DisplayName("Junit test for updateEmployee method invalidating the cache")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenNextLookupHitsRepository(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willReturn(employee);
+        employeeService.getEmployeeById(employee.getId());
+        // when - action or the behaviour that we are going test
+
+        employeeService.updateEmployee(employee);
+        employeeService.getEmployeeById(employee.getId());
+        // then - verify the output
+
+        verify(employeeRepository, times(2)).findById(employee.getId());
+    }
+
+    // Junit test for updateEmployee method failing
+    @DisplayName("Junit test for updateEmployee method failing")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployeeFails_thenNextLookupHitsRepository(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employee.getId()));
+        employeeService.getEmployeeById(employee.getId());
+        // when - action or the behaviour that we are going test
+
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> employeeService.updateEmployee(employee));
+        employeeService.getEmployeeById(employee.getId());
+        // then - verify the output
+
+        verify(employeeRepository, times(2)).findById(employee.getId());
+    }
+
+    // Junit test for saveEmployees method dropping cached not founds
+    @DisplayName("Junit test for saveEmployees method dropping cached not founds")
+    @Test
+    public void givenCachedEmployeeAndNotFound_whenSaveEmployees_thenOnlyNewIdIsEvicted(){
+        // given - precondition or setup
+
+        Employee newEmployee = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Behura")
+                .email("anuradha@gmail.com")
+                .build();
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty()).willReturn(Optional.of(newEmployee));
+        given(employeeRepository.batchInsert(List.of(newEmployee))).willAnswer(invocation -> {
+            newEmployee.setId(2L);
+            return List.of(newEmployee);
+        });
+        employeeService.getEmployeeById(employee.getId());
+        employeeService.getEmployeeById(2L);
+        // when - action or the behaviour that we are going test
+
+        employeeService.saveEmployees(List.of(newEmployee));
+        employeeService.getEmployeeById(employee.getId());
+        Optional<Employee> savedEmployee = employeeService.getEmployeeById(2L);
+        // then - verify the output
+
+        assertThat(savedEmployee).get().extracting(Employee::getEmail).isEqualTo("anuradha@gmail.com");
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        verify(employeeRepository, times(2)).findById(2L);
+    }
+
+    // Junit test for deleteEmployee method invalidating the cache
+    @DisplayName("Junit test for deleteEmployee method invalidating the cache")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenNextLookupHitsRepository(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee)).willReturn(Optional.empty());
+        employeeService.getEmployeeById(employee.getId());
+        // when - action or the behaviour that we are going test
+
+        employeeService.deleteEmployee(employee.getId());
+        Optional<Employee> deletedEmployee = employeeService.getEmployeeById(employee.getId());
+        // then - verify the output
+
+        assertThat(deletedEmployee).isEmpty();
+        verify(employeeRepository, times(2)).findById(employee.getId());
+    }
+
+    // Junit test for saveEmployee method replacing a cached not found
+    @DisplayName("Junit test for saveEmployee method replacing a cached not found")
+    @Test
+    public void givenCachedNotFound_whenSaveEmployee_thenLookupReturnsNewEmployee(){
+        // given - precondition or setup
+
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.empty());
+        given(employeeRepository.save(employee)).willReturn(employee);
+        employeeService.getEmployeeById(employee.getId());
+        // when - action or the behaviour that we are going test
+
+        employeeService.saveEmployee(employee);
+        Optional<Employee> savedEmployee = employeeService.getEmployeeById(employee.getId());
+        // then - verify the output
+
+        assertThat(savedEmployee).get().usingRecursiveComparison().isEqualTo(employee);
+        assertThat(savedEmployee).get().isNotSameAs(employee);
+        verify(employeeRepository, times(1)).findById(employee.getId());
+    }
+}
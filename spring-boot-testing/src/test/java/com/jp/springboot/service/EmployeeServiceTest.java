@@ -1,8 +1,12 @@
 package com.jp.springboot.service;
 
+import com.jp.springboot.dto.EmployeeBatchResult;
+import com.jp.springboot.event.EmployeeChangedEvent;
 import com.jp.springboot.exception.ResourceNotFoundExceptiion;
 import com.jp.springboot.model.Employee;
 import com.jp.springboot.repository.EmployeeRepository;
+import com.jp.springboot.search.EmployeeSearchIndex;
+import jakarta.persistence.EntityManager;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Assertions;
@@ -16,21 +20,42 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+    @Mock
+    private EmployeeSearchIndex employeeSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CacheManager cacheManager;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -53,6 +78,7 @@ public class EmployeeServiceTest {
      public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject(){
      // given - precondition or setup
 
+         given(knownEmailFilter.mightContain(employee.getEmail())).willReturn(true);
          given(employeeRepository.findByEmail(employee.getEmail()))
                  .willReturn(Optional.empty());
          given(employeeRepository.save(employee)).willReturn(employee);
@@ -69,6 +95,7 @@ public class EmployeeServiceTest {
     public void givenExistingEmail_whenSaveEmployee_thenThrowException(){
         // given - precondition or setup
 
+        given(knownEmailFilter.mightContain(employee.getEmail())).willReturn(true);
         given(employeeRepository.findByEmail(employee.getEmail()))
                 .willReturn(Optional.of(employee));
 
@@ -81,6 +108,120 @@ public class EmployeeServiceTest {
        verify(employeeRepository,never()).save(any(Employee.class));
 
     }
+    // Junit test for saveEmployee method with an email the filter has never seen
+    @DisplayName("Junit test for saveEmployee method with an email the filter has never seen")
+    @Test
+    public void givenNewEmail_whenSaveEmployee_thenSkipEmailLookup(){
+        // given - precondition or setup
+
+        given(knownEmailFilter.mightContain(employee.getEmail())).willReturn(false);
+        given(employeeRepository.save(employee)).willReturn(employee);
+        // when - action or the behaviour that we are going test
+
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        // then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(any());
+        verify(knownEmailFilter).add(employee.getEmail());
+    }
+
+    // Junit test for saveEmployee method when the unique email index is violated
+    @DisplayName("Junit test for saveEmployee method when the unique email index is violated")
+    @Test
+    public void givenUniqueIndexViolation_whenSaveEmployee_thenThrowException(){
+        // given - precondition or setup
+
+        given(knownEmailFilter.mightContain(employee.getEmail())).willReturn(false);
+        given(employeeRepository.save(employee)).willThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("Duplicate entry 'jashobanta@gmail.com' for key 'employees.uk_employees_email'")));
+
+        // when - action or the behaviour that we are going test
+        ResourceNotFoundExceptiion exception = Assertions.assertThrows(ResourceNotFoundExceptiion.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+
+        // then - verify the output
+        assertThat(exception.getMessage()).isEqualTo("Employee already exist with given email:" + employee.getEmail());
+    }
+
+    // Junit test for saveEmployees method
+    @DisplayName("Junit test for saveEmployees method")
+    @Test
+    public void givenEmployeeList_whenSaveEmployees_thenInsertOnlyNewEmails(){
+        // given - precondition or setup
+
+        Employee newEmployee = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Behura")
+                .email("anuradha@gmail.com")
+                .build();
+        Employee repeatedEmployee = Employee.builder()
+                .firstName("Anu")
+                .lastName("Behura")
+                .email("anuradha@gmail.com")
+                .build();
+        Employee invalidEmployee = Employee.builder()
+                .firstName("Jasho")
+                .build();
+
+        given(employeeRepository.findExistingEmails(List.of(employee.getEmail(), newEmployee.getEmail())))
+                .willReturn(List.of(employee.getEmail()));
+        given(employeeRepository.batchInsert(List.of(newEmployee))).willReturn(List.of(newEmployee));
+        // when - action or the behaviour that we are going test
+
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(
+                List.of(employee, newEmployee, repeatedEmployee, invalidEmployee));
+        // then - verify the output
+
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.DUPLICATE_EMAIL,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE_EMAIL,
+                EmployeeBatchResult.Status.INVALID);
+        assertThat(results).extracting(EmployeeBatchResult::getIndex).containsExactly(0, 1, 2, 3);
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    // Junit test for saveEmployees method with emails differing only in case
+    @DisplayName("Junit test for saveEmployees method with emails differing only in case")
+    @Test
+    public void givenMixedCaseDuplicateEmails_whenSaveEmployees_thenInsertOnlyNewEmails(){
+        // given - precondition or setup
+
+        Employee existingEmployee = Employee.builder()
+                .firstName("Jasho")
+                .lastName("Patra")
+                .email("Jashobanta@Gmail.com")
+                .build();
+        Employee newEmployee = Employee.builder()
+                .firstName("Anuradha")
+                .lastName("Behura")
+                .email("anuradha@gmail.com")
+                .build();
+        Employee repeatedEmployee = Employee.builder()
+                .firstName("Anu")
+                .lastName("Behura")
+                .email("ANURADHA@gmail.com")
+                .build();
+
+        given(employeeRepository.findExistingEmails(List.of(existingEmployee.getEmail(), newEmployee.getEmail(),
+                repeatedEmployee.getEmail()))).willReturn(List.of("jashobanta@gmail.com"));
+        given(employeeRepository.batchInsert(List.of(newEmployee))).willReturn(List.of(newEmployee));
+        // when - action or the behaviour that we are going test
+
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(
+                List.of(existingEmployee, newEmployee, repeatedEmployee));
+        // then - verify the output
+
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.DUPLICATE_EMAIL,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE_EMAIL);
+        verify(employeeRepository).batchInsert(List.of(newEmployee));
+    }
+
      // Junit test for getAllEmployees method
      @DisplayName("Junit test for getAllEmployees method")
      @Test
@@ -127,6 +268,81 @@ public class EmployeeServiceTest {
         assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    // Junit test for getEmployees method
+    @DisplayName("Junit test for getEmployees method")
+    @Test
+    public void givenOversizedPageSize_whenGetEmployees_thenPageSizeIsBounded(){
+        // given - precondition or setup
+
+        PageRequest pageRequest = PageRequest.of(0, EmployeeService.MAX_PAGE_SIZE, Sort.by("id"));
+        given(employeeRepository.findByIdGreaterThan(employee.getId(), pageRequest))
+                .willReturn(new SliceImpl<>(List.of(), pageRequest, false));
+        // when - action or the behaviour that we are going test
+
+        Slice<Employee> employees = employeeService.getEmployees(employee.getId(), 10_000);
+        // then - verify the output
+
+        assertThat(employees.getSize()).isEqualTo(EmployeeService.MAX_PAGE_SIZE);
+        assertThat(employees.hasNext()).isFalse();
+    }
+
+    // Junit test for exportEmployees method
+    @DisplayName("Junit test for exportEmployees method")
+    @Test
+    public void givenEmployeeStream_whenExportEmployees_thenEachEmployeeIsWrittenAndDetached(){
+        // given - precondition or setup
+
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Jasho")
+                .lastName("Patra")
+                .email("jasho@gmail.com")
+                .build();
+
+        given(employeeRepository.streamAll()).willReturn(Stream.of(employee, employee1));
+        List<Employee> exported = new ArrayList<>();
+        // when - action or the behaviour that we are going test
+
+        employeeService.exportEmployees(exported::add);
+        // then - verify the output
+
+        assertThat(exported).containsExactly(employee, employee1);
+        verify(entityManager).detach(employee);
+        verify(entityManager).detach(employee1);
+    }
+
+    // Junit test for searchEmployeesByName method
+    @DisplayName("Junit test for searchEmployeesByName method")
+    @Test
+    public void givenNamePrefix_whenSearchEmployeesByName_thenSearchLastNamePrefix(){
+        // given - precondition or setup
+
+        given(employeeRepository.searchByLastNamePrefix("Pat!_%", PageRequest.of(1, 20)))
+                .willReturn(new SliceImpl<>(List.of(employee), PageRequest.of(1, 20), false));
+        // when - action or the behaviour that we are going test
+
+        Slice<Employee> employees = employeeService.searchEmployeesByName(" Pat_ ", 1, 20);
+        // then - verify the output
+
+        assertThat(employees.getContent()).containsExactly(employee);
+    }
+
+    // Junit test for searchEmployeesByName method with "Last, First"
+    @DisplayName("Junit test for searchEmployeesByName method with \"Last, First\"")
+    @Test
+    public void givenLastAndFirstName_whenSearchEmployeesByName_thenSearchFirstNamePrefix(){
+        // given - precondition or setup
+
+        given(employeeRepository.searchByLastNameAndFirstNamePrefix("Patra", "Jas%", PageRequest.of(0, 20)))
+                .willReturn(new SliceImpl<>(List.of(employee), PageRequest.of(0, 20), false));
+        // when - action or the behaviour that we are going test
+
+        Slice<Employee> employees = employeeService.searchEmployeesByName("Patra, Jas", 0, 20);
+        // then - verify the output
+
+        assertThat(employees.getContent()).containsExactly(employee);
+    }
+
  // Junit test for getEmployeeById method
     @DisplayName("Junit test for getEmployeeById method")
      @Test
@@ -160,6 +376,59 @@ public class EmployeeServiceTest {
           assertThat(updatedEmployee.getFirstName()).isEqualTo("Jasho");
       }
 
+    // Junit test for patchEmployee method
+    @DisplayName("Junit test for patchEmployee method")
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenReturnTrue(){
+        // given - precondition or setup
+
+        Employee changes = Employee.builder().email("patra@gmail.com").build();
+        given(employeeRepository.patchEmployee(employee.getId(), null, null, null, "patra@gmail.com")).willReturn(1);
+        // when - action or the behaviour that we are going test
+
+        boolean patched = employeeService.patchEmployee(employee.getId(), null, changes);
+        // then - verify the output
+
+        assertThat(patched).isTrue();
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(knownEmailFilter).add("patra@gmail.com");
+    }
+
+    // Junit test for patchEmployee method (negative scenario)
+    @DisplayName("Junit test for patchEmployee method (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenPatchEmployee_thenReturnFalse(){
+        // given - precondition or setup
+
+        Employee changes = Employee.builder().firstName("Jasho").build();
+        given(employeeRepository.patchEmployee(2L, null, "Jasho", null, null)).willReturn(0);
+        // when - action or the behaviour that we are going test
+
+        boolean patched = employeeService.patchEmployee(2L, null, changes);
+        // then - verify the output
+
+        assertThat(patched).isFalse();
+    }
+
+    // Junit test for patchEmployee method with a stale version
+    @DisplayName("Junit test for patchEmployee method with a stale version")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsOptimisticLockingFailure(){
+        // given - precondition or setup
+
+        Employee changes = Employee.builder().firstName("Jasho").build();
+        given(employeeRepository.patchEmployee(employee.getId(), 3L, "Jasho", null, null)).willReturn(0);
+        given(employeeRepository.existsById(employee.getId())).willReturn(true);
+        // when - action or the behaviour that we are going test
+
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> {
+            employeeService.patchEmployee(employee.getId(), 3L, changes);
+        });
+        // then - verify the output
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
        // Junit test for deletedEmployee method
     @DisplayName("Junit test for deletedEmployee method")
        @Test
@@ -167,12 +436,116 @@ public class EmployeeServiceTest {
 
         long emplyeeId=1l;
            // given - precondition or setup
-        willDoNothing().given(employeeRepository).deleteById(emplyeeId);
+        given(employeeRepository.deleteEmployeeById(emplyeeId)).willReturn(1);
            // when - action or the behaviour that we are going test
 
-        employeeService.deleteEmployee(emplyeeId);
+        boolean deleted = employeeService.deleteEmployee(emplyeeId);
            // then - verify the output
 
-        verify(employeeRepository, times(1)).deleteById(emplyeeId);
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployeeById(emplyeeId);
+        verify(employeeRepository, never()).findById(emplyeeId);
        }
+
+    // Junit test for deleteEmployee method publishing a change event
+    @DisplayName("Junit test for deleteEmployee method publishing a change event")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenPublishDeletedEvent(){
+        // given - precondition or setup
+
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        // when - action or the behaviour that we are going test
+
+        employeeService.deleteEmployee(1L);
+        // then - verify the output
+
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(EmployeeChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getEmployeeId()).isEqualTo(1L);
+    }
+
+    // Junit test for deleteEmployee method writing a tombstone
+    @DisplayName("Junit test for deleteEmployee method writing a tombstone")
+    @Test
+    public void givenExistingAndMissingEmployee_whenDeleteEmployee_thenOnlyDeletedOneGetsTombstone(){
+        // given - precondition or setup
+
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        given(employeeRepository.deleteEmployeeById(2L)).willReturn(0);
+        // when - action or the behaviour that we are going test
+
+        employeeService.deleteEmployee(1L);
+        employeeService.deleteEmployee(2L);
+        // then - verify the output
+
+        verify(employeeRepository).insertTombstone(1L);
+        verify(employeeRepository, never()).insertTombstone(2L);
+    }
+
+    // Junit test for searchEmployees method
+    @DisplayName("Junit test for searchEmployees method")
+    @Test
+    public void givenLimitAboveMaximum_whenSearchEmployees_thenSearchIndexWithMaximum(){
+        // given - precondition or setup
+
+        given(employeeSearchIndex.search("jas", EmployeeService.MAX_PAGE_SIZE)).willReturn(List.of(employee));
+        // when - action or the behaviour that we are going test
+
+        List<Employee> employees = employeeService.searchEmployees("jas", 10_000);
+        // then - verify the output
+
+        assertThat(employees).containsExactly(employee);
+    }
+
+    // Junit test for deleteEmployees method
+    @DisplayName("Junit test for deleteEmployees method")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount(){
+        // given - precondition or setup
+
+        given(employeeRepository.lockExistingIds(List.of(1L, 2L, 3L))).willReturn(List.of(1L, 2L));
+        given(employeeRepository.deleteEmployeesByIds(List.of(1L, 2L))).willReturn(2);
+        // when - action or the behaviour that we are going test
+
+        int deleted = employeeService.deleteEmployees(List.of(1L, 2L, 1L, 3L));
+        // then - verify the output
+
+        assertThat(deleted).isEqualTo(2);
+        ArgumentCaptor<EmployeeChangedEvent> events = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(EmployeeChangedEvent::getEmployeeId).containsExactly(1L, 2L);
+    }
+
+    // Junit test for deleteEmployees method with unknown ids only
+    @DisplayName("Junit test for deleteEmployees method with unknown ids only")
+    @Test
+    public void givenUnknownEmployeeIds_whenDeleteEmployees_thenNothingIsDeletedOrPublished(){
+        // given - precondition or setup
+
+        given(employeeRepository.lockExistingIds(List.of(7L, 8L))).willReturn(List.of());
+        // when - action or the behaviour that we are going test
+
+        int deleted = employeeService.deleteEmployees(List.of(7L, 8L));
+        // then - verify the output
+
+        assertThat(deleted).isZero();
+        verify(employeeRepository, never()).deleteEmployeesByIds(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    // Junit test for updateEmailDomain method
+    @DisplayName("Junit test for updateEmailDomain method")
+    @Test
+    public void givenEmailDomains_whenUpdateEmailDomain_thenDomainIsEscaped(){
+        // given - precondition or setup
+
+        given(employeeRepository.updateEmailDomain("old!_mail.com", 12, "gmail.com")).willReturn(3);
+        // when - action or the behaviour that we are going test
+
+        int updated = employeeService.updateEmailDomain("old_mail.com", "gmail.com");
+        // then - verify the output
+
+        assertThat(updated).isEqualTo(3);
+    }
 }
@@ -0,0 +1,36 @@
+package com.jp.springboot.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomFilterTest {
+
+    // Junit test for mightContain method
+    @DisplayName("Junit test for mightContain method")
+    @Test
+    public void givenAddedEmails_whenMightContain_thenNoFalseNegativesAndFewFalsePositives(){
+        // given - precondition or setup
+
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.add("employee" + i + "@gmail.com");
+        }
+
+        // when - action or the behaviour that we are going test
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (bloomFilter.mightContain("employee" + i + "@gmail.com")) {
+                falsePositives++;
+            }
+        }
+
+        // then - verify the output
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloomFilter.mightContain("employee" + i + "@gmail.com")).isTrue();
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -0,0 +1,175 @@
+package com.jp.springboot.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 50;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown(){
+        executor.shutdownNow();
+    }
+
+    // Junit test for execute method with concurrent callers
+    @DisplayName("Junit test for execute method with concurrent callers")
+    @Test
+    public void givenConcurrentCallersForSameKey_whenExecute_thenOneCallSharedByAll() throws Exception {
+        // given - precondition or setup
+
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when - action or the behaviour that we are going test
+
+        List<Future<String>> results = startCallers(singleFlight, 1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "Jashobanta";
+        });
+        release.countDown();
+
+        // then - verify the output
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("Jashobanta");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    // Junit test for execute method with a failing call
+    @DisplayName("Junit test for execute method with a failing call")
+    @Test
+    public void givenFailingCall_whenExecute_thenEveryCallerGetsTheException() throws Exception {
+        // given - precondition or setup
+
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database is down");
+
+        // when - action or the behaviour that we are going test
+
+        List<Future<String>> results = startCallers(singleFlight, 1L, () -> {
+            await(release);
+            throw failure;
+        });
+        release.countDown();
+
+        // then - verify the output
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS)).hasCause(failure);
+        }
+    }
+
+    // Junit test for execute method with a slow call
+    @DisplayName("Junit test for execute method with a slow call")
+    @Test
+    public void givenCallSlowerThanTimeout_whenExecute_thenWaitingCallersTimeOut() throws Exception {
+        // given - precondition or setup
+
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            await(release);
+            return "Jashobanta";
+        }));
+        started.await();
+
+        // when - action or the behaviour that we are going test
+
+        Future<String> waiting = executor.submit(() -> singleFlight.execute(1L, () -> "second call"));
+
+        // then - verify the output
+        assertThatThrownBy(() -> waiting.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(QueryTimeoutException.class);
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("Jashobanta");
+    }
+
+    // Junit test for execute method after a completed call
+    @DisplayName("Junit test for execute method after a completed call")
+    @Test
+    public void givenCompletedCall_whenExecute_thenCallRunsAgain(){
+        // given - precondition or setup
+
+        SingleFlight<Long, Integer> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        AtomicInteger calls = new AtomicInteger();
+
+        // when - action or the behaviour that we are going test
+
+        int first = singleFlight.execute(1L, calls::incrementAndGet);
+        int second = singleFlight.execute(1L, calls::incrementAndGet);
+        int otherKey = singleFlight.execute(2L, calls::incrementAndGet);
+
+        // then - verify the output
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(otherKey).isEqualTo(3);
+    }
+
+    // one caller runs the call, the others are started once it is in flight and return once they wait for it
+    private List<Future<String>> startCallers(SingleFlight<Long, String> singleFlight, long key,
+                                              Supplier<String> call) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute(key, () -> {
+            started.countDown();
+            return call.get();
+        })));
+        started.await();
+        List<Thread> waiting = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                synchronized (waiting) {
+                    waiting.add(Thread.currentThread());
+                }
+                return singleFlight.execute(key, call);
+            }));
+        }
+        awaitAllWaiting(waiting);
+        return results;
+    }
+
+    private static void awaitAllWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            synchronized (threads) {
+                if (threads.size() == CALLERS - 1
+                        && threads.stream().allMatch(thread -> thread.getState() == Thread.State.TIMED_WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("Callers did not start waiting");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}